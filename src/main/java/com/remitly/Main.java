@@ -1,28 +1,86 @@
 package com.remitly;
 
-import com.remitly.json.JSONParser;
-import com.remitly.validator.RolePolicyValidator;
-import com.remitly.model.RolePolicy;
+import com.remitly.execution.CheckpointedExecution;
+import com.remitly.execution.ExecutionPlan;
+import com.remitly.execution.ExecutionPlanner;
+import com.remitly.report.ReportFormat;
+import com.remitly.report.ReportWriter;
+import com.remitly.server.ValidationServer;
+import com.remitly.validator.WildcardPreScan;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class Main {
     public static void main(String[] args) {
         try {
+            if (args.length == 2 && args[0].equals("--serve")) {
+                serve(Integer.parseInt(args[1]));
+                return;
+            }
+
             String json = ""; // input your document/s here (remember to use proper methods if you do so!)
             String filepath = getFilepathFromArgs(args); // filepath can be specified here directly
             boolean isRobust = getMode(args); // mode can be specified here directly
+            ReportFormat format = getFormat(args); // report format can be specified here directly
+            String checkpointPath = getCheckpointPath(args); // checkpoint file can be specified here directly
 
-            RolePolicy rolePolicy = JSONParser.parseDocumentFromPath(filepath);
-            System.out.println(RolePolicyValidator.validate(rolePolicy, isRobust));
+            if (checkpointPath != null && format == null) {
+                throw new IllegalArgumentException("Checkpoints require a report format");
+            } else if (format == null) {
+                byte[] document = Files.readAllBytes(Path.of(filepath));
+                System.out.println(WildcardPreScan.validate(document, isRobust));
+            } else {
+                try {
+                    writeReport(filepath, isRobust, format, checkpointPath);
+                } catch (IOException | RuntimeException ex) {
+                    // the report on stdout is left unterminated, so the failure goes to stderr and the exit status
+                    System.err.println(ex.getMessage());
+                    System.exit(1);
+                }
+            }
         } catch (Exception ex) {
             System.out.println(ex.getMessage());
         }
     }
 
+    private static void writeReport(String filepath, boolean isRobust, ReportFormat format, String checkpointPath) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16);
+
+        // the report is only completed when the whole input has been read, a run that fails part way leaves it
+        // unterminated so that no consumer mistakes it for a finished one
+        try {
+            ReportWriter writer = format.createWriter(out, filepath);
+            if (checkpointPath != null) {
+                new CheckpointedExecution(Path.of(checkpointPath)).execute(Path.of(filepath), isRobust, writer);
+            } else {
+                ExecutionPlanner planner = new ExecutionPlanner();
+                ExecutionPlan plan = planner.plan(Path.of(filepath));
+                planner.execute(plan, Path.of(filepath), isRobust, writer);
+            }
+            writer.close();
+        } finally {
+            out.flush();
+        }
+    }
+
+    private static void serve(int port) throws IOException, InterruptedException {
+        try (ValidationServer server = new ValidationServer(new InetSocketAddress(port), Runtime.getRuntime().availableProcessors())) {
+            System.out.println("Listening on port " + server.port());
+            server.awaitTermination();
+        }
+    }
+
     private static String getFilepathFromArgs(String[] args) {
-        if (args.length == 1) {
-            return args[0];
-        } else if (args.length == 2 && getMode(args)) {
-            return args[1];
+        int expectedLength = 1 + (getMode(args) ? 1 : 0) + (getFormat(args) != null ? 2 : 0) + (getCheckpointPath(args) != null ? 2 : 0);
+        if (args.length == expectedLength) {
+            return args[args.length - 1];
         } else {
             throw new IllegalArgumentException("Invalid number of arguments");
         }
@@ -31,4 +89,22 @@ public class Main {
     private static boolean getMode(String[] args) {
         return args.length > 0 && (args[0].equals("--robust") || args[0].equals("-r"));
     }
-}
\ No newline at end of file
+
+    private static ReportFormat getFormat(String[] args) {
+        int i = getMode(args) ? 1 : 0;
+        if (args.length > i + 1 && (args[i].equals("--format") || args[i].equals("-f"))) {
+            return ReportFormat.fromName(args[i + 1]);
+        }
+
+        return null;
+    }
+
+    private static String getCheckpointPath(String[] args) {
+        int i = (getMode(args) ? 1 : 0) + (getFormat(args) != null ? 2 : 0);
+        if (args.length > i + 1 && (args[i].equals("--checkpoint") || args[i].equals("-c"))) {
+            return args[i + 1];
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.remitly.bulk;
+
+import com.remitly.model.RolePolicy;
+
+// callbacks are invoked from the worker threads, possibly concurrently for the same job
+public interface BulkValidationListener {
+
+    BulkValidationListener NONE = new BulkValidationListener() {};
+
+    default void onPolicyValidated(long index, RolePolicy rolePolicy, boolean isValid, RuntimeException exception) {}
+
+    default void onProgress(JobStats stats) {}
+
+    default void onCompleted(JobStats stats) {}
+}
@@ -0,0 +1,82 @@
+package com.remitly.bulk;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class BulkValidationService implements AutoCloseable {
+
+    private static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final FairScheduler scheduler;
+    private final ExecutorService workers;
+    private final int batchSize;
+
+    public BulkValidationService(int workerCount) {
+        this(workerCount, DEFAULT_BATCH_SIZE);
+    }
+
+    public BulkValidationService(int workerCount, int batchSize) {
+        if (workerCount <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Worker count and batch size have to be positive");
+        }
+
+        this.batchSize = batchSize;
+        this.scheduler = new FairScheduler(batchSize);
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-validation-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    public void setTenantWeight(String tenant, int weight) {
+        scheduler.setWeight(tenant, weight);
+    }
+
+    public JobHandle submit(ValidationJob job) {
+        return submit(job, BulkValidationListener.NONE);
+    }
+
+    public JobHandle submit(ValidationJob job, BulkValidationListener listener) {
+        JobHandle handle = new JobHandle(job, listener, scheduler);
+        scheduler.add(handle);
+
+        return handle;
+    }
+
+    @Override
+    public void close() {
+        for (JobHandle job : scheduler.pendingJobs()) {
+            job.cancel();
+        }
+
+        scheduler.close();
+        workers.shutdownNow();
+    }
+
+    private void work() {
+        try {
+            JobHandle job;
+            while ((job = scheduler.next()) != null) {
+                try {
+                    if (!job.runBatch(batchSize)) {
+                        scheduler.remove(job);
+                    }
+                } catch (Throwable ex) {
+                    // a failing listener or an error such as a stack overflow on deeply nested input terminates
+                    // its own job, never the worker
+                    scheduler.remove(job);
+                    job.fail(ex);
+                } finally {
+                    scheduler.finished(job);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
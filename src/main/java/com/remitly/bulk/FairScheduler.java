@@ -0,0 +1,133 @@
+package com.remitly.bulk;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+// self-clocked weighted fair queuing over tenants: a tenant's next batch would finish at its virtual time plus
+// batchSize / weight, the tenant that finishes first is served and the scheduler's virtual time moves to that
+// finish; a served tenant never runs ahead of the scheduler, so an idle tenant is forgotten without losing
+// anything and only its configured weight is kept
+class FairScheduler {
+
+    private static class Tenant {
+        private final ArrayDeque<JobHandle> jobs = new ArrayDeque<>();
+        private int weight;
+        private int running;
+        private double virtualTime;
+
+        private Tenant(int weight, double virtualTime) {
+            this.weight = weight;
+            this.virtualTime = virtualTime;
+        }
+    }
+
+    private final Map<String, Tenant> tenants = new HashMap<>();
+    private final Map<String, Integer> weights = new HashMap<>();
+    private final int batchSize;
+
+    private double virtualTime;
+    private boolean isClosed;
+
+    FairScheduler(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    synchronized void setWeight(String tenant, int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Tenant weight has to be positive");
+        }
+
+        weights.put(tenant, weight);
+        Tenant state = tenants.get(tenant);
+        if (state != null) {
+            state.weight = weight;
+        }
+    }
+
+    synchronized void add(JobHandle job) {
+        if (isClosed) {
+            throw new IllegalStateException("Scheduler is closed");
+        }
+
+        Tenant tenant = tenants.computeIfAbsent(job.job().tenant(), key -> new Tenant(weights.getOrDefault(key, 1), virtualTime));
+        if (tenant.jobs.isEmpty()) {
+            // an idle tenant must not bank credit for the time it had nothing queued
+            tenant.virtualTime = Math.max(tenant.virtualTime, virtualTime);
+        }
+        tenant.jobs.addLast(job);
+        notifyAll();
+    }
+
+    synchronized void remove(JobHandle job) {
+        Tenant tenant = tenants.get(job.job().tenant());
+        if (tenant != null) {
+            tenant.jobs.remove(job);
+            removeIfIdle(job.job().tenant(), tenant);
+        }
+    }
+
+    // called once a batch handed out by next() has been run
+    synchronized void finished(JobHandle job) {
+        Tenant tenant = tenants.get(job.job().tenant());
+        if (tenant != null) {
+            tenant.running--;
+            removeIfIdle(job.job().tenant(), tenant);
+        }
+    }
+
+    // blocks until a job is available, returns null once the scheduler is closed
+    synchronized JobHandle next() throws InterruptedException {
+        while (!isClosed) {
+            Tenant selected = null;
+            for (Tenant tenant : tenants.values()) {
+                if (!tenant.jobs.isEmpty() && (selected == null || finish(tenant) < finish(selected))) {
+                    selected = tenant;
+                }
+            }
+
+            if (selected != null) {
+                virtualTime = finish(selected);
+                selected.virtualTime = virtualTime;
+                selected.running++;
+
+                // jobs of a single tenant share its slots round-robin
+                JobHandle job = selected.jobs.pollFirst();
+                selected.jobs.addLast(job);
+                return job;
+            }
+
+            wait();
+        }
+
+        return null;
+    }
+
+    synchronized void close() {
+        isClosed = true;
+        notifyAll();
+    }
+
+    synchronized Iterable<JobHandle> pendingJobs() {
+        ArrayDeque<JobHandle> pending = new ArrayDeque<>();
+        for (Tenant tenant : tenants.values()) {
+            pending.addAll(tenant.jobs);
+        }
+
+        return pending;
+    }
+
+    synchronized int tenantCount() {
+        return tenants.size();
+    }
+
+    private double finish(Tenant tenant) {
+        return tenant.virtualTime + (double) batchSize / tenant.weight;
+    }
+
+    private void removeIfIdle(String name, Tenant tenant) {
+        if (tenant.jobs.isEmpty() && tenant.running == 0) {
+            tenants.remove(name);
+        }
+    }
+}
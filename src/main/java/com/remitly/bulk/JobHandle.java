@@ -0,0 +1,183 @@
+package com.remitly.bulk;
+
+import com.remitly.model.RolePolicy;
+import com.remitly.validator.RolePolicyValidator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class JobHandle {
+
+    private final ValidationJob job;
+    private final BulkValidationListener listener;
+    private final FairScheduler scheduler;
+    private final CompletableFuture<JobStats> completion = new CompletableFuture<>();
+
+    private final AtomicLong validCount = new AtomicLong();
+    private final AtomicLong invalidCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong validationNanos = new AtomicLong();
+
+    private final long submittedAt = System.nanoTime();
+    private volatile long startedAt;
+    private volatile long completedAt;
+    private volatile boolean isCancelled;
+
+    private Iterator<RolePolicy> iterator;
+    private long nextIndex;
+    private int inFlight;
+    private boolean isDrained;
+    private boolean isCompleted;
+
+    JobHandle(ValidationJob job, BulkValidationListener listener, FairScheduler scheduler) {
+        this.job = job;
+        this.listener = listener;
+        this.scheduler = scheduler;
+    }
+
+    public ValidationJob job() {
+        return job;
+    }
+
+    public CompletableFuture<JobStats> completion() {
+        return completion;
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    public void cancel() {
+        isCancelled = true;
+        scheduler.remove(this);
+
+        boolean isIdle;
+        synchronized (this) {
+            isDrained = true;
+            isIdle = inFlight == 0;
+        }
+        if (isIdle) {
+            complete();
+        }
+    }
+
+    public JobStats stats() {
+        long now = completedAt != 0 ? completedAt : System.nanoTime();
+        long started = startedAt != 0 ? startedAt : now;
+
+        return new JobStats(
+                job.tenant(),
+                job.name(),
+                validCount.get(),
+                invalidCount.get(),
+                failedCount.get(),
+                started - submittedAt,
+                now - submittedAt,
+                validationNanos.get(),
+                isCancelled
+        );
+    }
+
+    // returns false once the job has no more input to hand out
+    boolean runBatch(int batchSize) {
+        ArrayList<RolePolicy> batch = new ArrayList<>(batchSize);
+        long firstIndex;
+        boolean hasMore;
+
+        synchronized (this) {
+            if (isDrained) {
+                return false;
+            }
+            if (iterator == null) {
+                startedAt = System.nanoTime();
+            }
+
+            try {
+                if (iterator == null) {
+                    iterator = job.rolePolicies().iterator();
+                }
+                while (batch.size() < batchSize && iterator.hasNext()) {
+                    batch.add(iterator.next());
+                }
+                hasMore = iterator.hasNext();
+            } catch (RuntimeException ex) {
+                fail(ex);
+                return false;
+            }
+
+            firstIndex = nextIndex;
+            nextIndex += batch.size();
+            isDrained = !hasMore;
+            inFlight++;
+        }
+
+        for (int i = 0; i < batch.size() && !isCancelled; i++) {
+            validate(firstIndex + i, batch.get(i));
+        }
+
+        boolean isFinished;
+        synchronized (this) {
+            inFlight--;
+            isFinished = isDrained && inFlight == 0;
+        }
+
+        if (isFinished) {
+            complete();
+        } else {
+            listener.onProgress(stats());
+        }
+
+        return hasMore && !isCancelled;
+    }
+
+    synchronized void fail(Throwable exception) {
+        isDrained = true;
+        if (!isCompleted) {
+            isCompleted = true;
+            completedAt = System.nanoTime();
+            completion.completeExceptionally(exception);
+        }
+    }
+
+    private void validate(long index, RolePolicy rolePolicy) {
+        long start = System.nanoTime();
+        boolean isValid = false;
+        RuntimeException exception = null;
+
+        try {
+            isValid = RolePolicyValidator.validate(rolePolicy, job.isRobust());
+        } catch (RuntimeException ex) {
+            exception = ex;
+        }
+        validationNanos.addAndGet(System.nanoTime() - start);
+
+        if (exception != null) {
+            failedCount.incrementAndGet();
+        } else if (isValid) {
+            validCount.incrementAndGet();
+        } else {
+            invalidCount.incrementAndGet();
+        }
+
+        listener.onPolicyValidated(index, rolePolicy, isValid, exception);
+    }
+
+    private void complete() {
+        synchronized (this) {
+            if (isCompleted) {
+                return;
+            }
+            isCompleted = true;
+            completedAt = System.nanoTime();
+        }
+
+        JobStats stats = stats();
+        try {
+            listener.onCompleted(stats);
+        } finally {
+            completion.complete(stats);
+        }
+    }
+}
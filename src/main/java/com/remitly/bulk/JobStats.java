@@ -0,0 +1,26 @@
+package com.remitly.bulk;
+
+public record JobStats(
+        String tenant,
+        String name,
+        long validCount,
+        long invalidCount,
+        long failedCount,
+        long queuedNanos,
+        long elapsedNanos,
+        long validationNanos,
+        boolean isCancelled
+) {
+
+    public long processedCount() {
+        return validCount + invalidCount + failedCount;
+    }
+
+    public double meanLatencyNanos() {
+        return processedCount() == 0 ? 0 : (double) validationNanos / processedCount();
+    }
+
+    public double policiesPerSecond() {
+        return elapsedNanos == 0 ? 0 : processedCount() * 1_000_000_000.0 / elapsedNanos;
+    }
+}
@@ -0,0 +1,17 @@
+package com.remitly.bulk;
+
+import com.remitly.model.RolePolicy;
+
+public record ValidationJob(
+        String tenant,
+        String name,
+        Iterable<RolePolicy> rolePolicies,
+        boolean isRobust
+) {
+
+    public ValidationJob {
+        if (tenant == null || name == null || rolePolicies == null) {
+            throw new IllegalArgumentException("Tenant, name and role policies of a job have to be specified");
+        }
+    }
+}
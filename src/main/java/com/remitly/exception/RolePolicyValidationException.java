@@ -2,8 +2,30 @@ package com.remitly.exception;
 
 public class RolePolicyValidationException extends RuntimeException {
 
+    private final ValidationRule rule;
+
+    private int statementIndex = -1;
+
     public RolePolicyValidationException(String message) {
+        this(ValidationRule.UNEXPECTED_ERROR, message);
+    }
+
+    public RolePolicyValidationException(ValidationRule rule, String message) {
         super(message);
+        this.rule = rule;
+    }
+
+    public ValidationRule getRule() {
+        return rule;
+    }
+
+    public int getStatementIndex() {
+        return statementIndex;
+    }
+
+    public RolePolicyValidationException atStatement(int statementIndex) {
+        this.statementIndex = statementIndex;
+        return this;
     }
 
 }
@@ -0,0 +1,29 @@
+package com.remitly.exception;
+
+public enum ValidationRule {
+    ROLE_POLICY_MISSING("Role policy is not specified"),
+    POLICY_NAME_MISSING("Role policy name is not specified"),
+    POLICY_NAME_FORMAT("Role policy name is of wrong format"),
+    POLICY_NAME_LENGTH("Role policy name length is out of bounds"),
+    POLICY_DOCUMENT_MISSING("Policy document is not specified"),
+    VERSION_MISSING("Policy document version is not specified"),
+    VERSION_UNSUPPORTED("Policy document version is not supported"),
+    STATEMENT_MISSING("Statement field is not specified"),
+    EFFECT_INVALID("Statement effect is neither Allow nor Deny"),
+    PRINCIPAL_NOT_ALLOWED("Principal cannot be specified in an attached policy document"),
+    ACTION_MISSING("Statement does not specify any action"),
+    RESOURCE_MISSING("Statement does not specify a resource"),
+    RESOURCE_WILDCARD("Statement grants access to every resource"),
+    MALFORMED_DOCUMENT("Document could not be read as a role policy"),
+    UNEXPECTED_ERROR("Validation failed unexpectedly");
+
+    private final String description;
+
+    ValidationRule(String description) {
+        this.description = description;
+    }
+
+    public String description() {
+        return description;
+    }
+}
@@ -0,0 +1,161 @@
+package com.remitly.execution;
+
+import com.remitly.json.ReaderPosition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+// cuts a JSON array into runs of whole top-level elements without parsing them: only strings, escapes, nesting
+// and line breaks are tracked, which is enough to find the separators of a valid array; on invalid input a cut
+// may land in the wrong place, which the parse of the affected chunk then fails on
+//
+// the first chunk is the input from its very beginning and every later one starts with the separator in front
+// of its first element, so that RolePolicyReader.resumeFromBytes can read it from its position; a chunk that was
+// cut off is closed with a synthetic ']' and the last one ends with the array's own, or wherever the input ended
+class ArraySplitter {
+
+    // the position is null for the first chunk
+    record Chunk(byte[] json, ReaderPosition position) {
+    }
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final int chunkSize;
+    private final byte[] input = new byte[READ_BUFFER_SIZE];
+
+    private int inputPosition;
+    private int inputLimit;
+    private long offset;
+
+    private byte[] chunk;
+    private int chunkLength;
+    private ReaderPosition chunkPosition;
+
+    private int depth;
+    private boolean isInString;
+    private boolean isEscaped;
+    private boolean isExpectingElement;
+    private boolean isAfterCarriageReturn;
+    private boolean isFinished;
+    private long elementCount;
+    private int line = 1;
+    private long lineStart;
+
+    ArraySplitter(InputStream in, int chunkSize) {
+        this.in = in;
+        this.chunkSize = chunkSize;
+        this.chunk = new byte[chunkSize + chunkSize / 4];
+    }
+
+    // consumes the input up to the opening bracket, false when the root value is not an array
+    boolean isArray() throws IOException {
+        while (fill()) {
+            byte b = input[inputPosition];
+            append(input, inputPosition, 1);
+            advance(b);
+            if (b == '[') {
+                depth = 1;
+                isExpectingElement = true;
+                return true;
+            } else if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    // null once the array has been closed or the input has ended
+    Chunk next() throws IOException {
+        while (!isFinished && fill()) {
+            int start = inputPosition;
+            while (inputPosition < inputLimit && !isFinished) {
+                byte b = input[inputPosition];
+                if (isInString) {
+                    if (isEscaped) {
+                        isEscaped = false;
+                    } else if (b == '\\') {
+                        isEscaped = true;
+                    } else if (b == '"') {
+                        isInString = false;
+                    }
+                    inputPosition++;
+                    offset++;
+                    continue;
+                }
+
+                if (b == ',' && depth == 1 && chunkLength + inputPosition - start >= chunkSize) {
+                    append(input, start, inputPosition - start);
+                    return cut();
+                }
+
+                if (isExpectingElement && depth == 1 && b != ' ' && b != '\t' && b != '\n' && b != '\r' && b != ']') {
+                    isExpectingElement = false;
+                    elementCount++;
+                }
+                switch (b) {
+                    case '"' -> isInString = true;
+                    case '{', '[' -> depth++;
+                    case '}', ']' -> isFinished = --depth == 0;
+                    case ',' -> isExpectingElement = depth == 1;
+                    default -> {}
+                }
+                advance(b);
+            }
+            append(input, start, inputPosition - start);
+        }
+
+        if (chunkLength == 0) {
+            return null;
+        }
+
+        Chunk last = new Chunk(Arrays.copyOf(chunk, chunkLength), chunkPosition);
+        chunkLength = 0;
+        isFinished = true;
+        return last;
+    }
+
+    // the next chunk starts with the separator at the current position
+    private Chunk cut() {
+        append(new byte[] {']'}, 0, 1);
+        Chunk full = new Chunk(Arrays.copyOf(chunk, chunkLength), chunkPosition);
+
+        chunkLength = 0;
+        chunkPosition = new ReaderPosition(offset, line, (int) (offset - lineStart) + 1, elementCount - 1);
+        return full;
+    }
+
+    private boolean fill() throws IOException {
+        if (inputPosition < inputLimit) {
+            return true;
+        }
+
+        int read = in.read(input);
+        inputPosition = 0;
+        inputLimit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    // a CR LF pair is a single line break, as it is for Jackson
+    private void advance(byte b) {
+        inputPosition++;
+        offset++;
+        if (b == '\r' || (b == '\n' && !isAfterCarriageReturn)) {
+            line++;
+        }
+        if (b == '\r' || b == '\n') {
+            lineStart = offset;
+        }
+        isAfterCarriageReturn = b == '\r';
+    }
+
+    private void append(byte[] bytes, int from, int length) {
+        if (chunkLength + length > chunk.length) {
+            chunk = Arrays.copyOf(chunk, Math.max(chunk.length * 2, chunkLength + length));
+        }
+        System.arraycopy(bytes, from, chunk, chunkLength, length);
+        chunkLength += length;
+    }
+}
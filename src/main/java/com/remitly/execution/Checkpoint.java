@@ -0,0 +1,20 @@
+package com.remitly.execution;
+
+import com.remitly.json.ReaderPosition;
+
+// the input is identified by its path, size and modification time, a checkpoint of any other input is not resumed
+record Checkpoint(
+        String input,
+        long inputSize,
+        long inputModified,
+        long offset,
+        int line,
+        int column,
+        long index,
+        long resultsLength
+) {
+
+    ReaderPosition position() {
+        return new ReaderPosition(offset, line, column, index);
+    }
+}
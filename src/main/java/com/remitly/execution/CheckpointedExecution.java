@@ -0,0 +1,135 @@
+package com.remitly.execution;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.json.ParserLimits;
+import com.remitly.json.ReaderPosition;
+import com.remitly.json.RolePolicyReader;
+import com.remitly.report.ReportWriter;
+import com.remitly.validator.ValidationResult;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+// validates an array of role policies as a stream while journaling every result next to the checkpoint file; every
+// interval policies the journal is synced and the checkpoint records how far the input and the journal got, so a run
+// restarted after a crash truncates the journal, seeks the input and carries on with the next policy, the report is
+// only written once the whole input has been validated
+public class CheckpointedExecution {
+
+    private static final Logger logger = Logger.getLogger(CheckpointedExecution.class.getName());
+
+    private static final int DEFAULT_INTERVAL = 10_000;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path checkpointPath;
+    private final Path resultsPath;
+    private final ParserLimits limits;
+    private final int interval;
+
+    public CheckpointedExecution(Path checkpointPath) {
+        this(checkpointPath, ParserLimits.DEFAULT, DEFAULT_INTERVAL);
+    }
+
+    public CheckpointedExecution(Path checkpointPath, ParserLimits limits, int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+
+        this.checkpointPath = checkpointPath;
+        this.resultsPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".results");
+        this.limits = limits;
+        this.interval = interval;
+    }
+
+    public long execute(Path path, boolean isRobust, ReportWriter writer) throws IOException {
+        Checkpoint checkpoint = loadCheckpoint(path);
+        if (checkpoint != null) {
+            logger.info(() -> String.format(
+                    "Resuming %s after policy %d at byte %d", path, checkpoint.index(), checkpoint.offset()
+            ));
+        }
+
+        try (FileChannel results = FileChannel.open(resultsPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             RolePolicyReader reader = checkpoint != null
+                     ? RolePolicyReader.resumeFromPath(path.toString(), limits, checkpoint.position())
+                     : RolePolicyReader.fromPath(path.toString(), limits)
+        ) {
+            results.truncate(checkpoint != null ? checkpoint.resultsLength() : 0);
+            results.position(results.size());
+            OutputStream journal = new BufferedOutputStream(Channels.newOutputStream(results), 1 << 16);
+
+            long sinceCheckpoint = 0;
+            while (reader.next()) {
+                journal.write(objectMapper.writeValueAsBytes(ExecutionPlanner.resultOf(reader, isRobust)));
+                journal.write('\n');
+
+                // a single document has nowhere to resume from
+                if (++sinceCheckpoint == interval && reader.isArray()) {
+                    journal.flush();
+                    results.force(false);
+                    saveCheckpoint(path, reader.position(), results.position());
+                    sinceCheckpoint = 0;
+                }
+            }
+            journal.flush();
+        }
+
+        long count = 0;
+        try (MappingIterator<ValidationResult> iterator = objectMapper.readerFor(ValidationResult.class).readValues(resultsPath.toFile())) {
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+            }
+        }
+
+        Files.deleteIfExists(checkpointPath);
+        Files.deleteIfExists(resultsPath);
+        return count;
+    }
+
+    private Checkpoint loadCheckpoint(Path path) throws IOException {
+        if (!Files.exists(checkpointPath) || !Files.exists(resultsPath)) {
+            return null;
+        }
+
+        Checkpoint checkpoint = objectMapper.readValue(checkpointPath.toFile(), Checkpoint.class);
+        if (!checkpoint.input().equals(path.toAbsolutePath().toString())
+         || checkpoint.inputSize() != Files.size(path)
+         || checkpoint.inputModified() != Files.getLastModifiedTime(path).toMillis()
+         || checkpoint.resultsLength() > Files.size(resultsPath)
+        ) {
+            logger.warning(() -> "Ignoring checkpoint " + checkpointPath + ", it belongs to another input");
+            return null;
+        }
+
+        return checkpoint;
+    }
+
+    // written next to the checkpoint and moved over it, so that a crash never leaves a partial checkpoint behind
+    private void saveCheckpoint(Path path, ReaderPosition position, long resultsLength) throws IOException {
+        Checkpoint checkpoint = new Checkpoint(
+                path.toAbsolutePath().toString(),
+                Files.size(path),
+                Files.getLastModifiedTime(path).toMillis(),
+                position.offset(),
+                position.line(),
+                position.column(),
+                position.index(),
+                resultsLength
+        );
+
+        Path temporaryPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        Files.write(temporaryPath, objectMapper.writeValueAsBytes(checkpoint));
+        Files.move(temporaryPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
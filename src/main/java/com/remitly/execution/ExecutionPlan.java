@@ -0,0 +1,9 @@
+package com.remitly.execution;
+
+public record ExecutionPlan(
+        ExecutionStrategy strategy,
+        long fileSize,
+        boolean isArray,
+        long estimatedCount
+) {
+}
@@ -0,0 +1,271 @@
+package com.remitly.execution;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.remitly.json.ParserLimits;
+import com.remitly.json.RolePolicyReader;
+import com.remitly.json.SourceLocations;
+import com.remitly.report.ReportWriter;
+import com.remitly.validator.RolePolicyValidator;
+import com.remitly.validator.ValidationResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+
+public class ExecutionPlanner {
+
+    private static final Logger logger = Logger.getLogger(ExecutionPlanner.class.getName());
+
+    private static final int SAMPLE_SIZE = 64 * 1024;
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 10_000;
+    private static final long DEFAULT_IN_MEMORY_LIMIT = 64L * 1024 * 1024;
+    private static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+
+    private final JsonFactory sampleFactory = new JsonFactory();
+    private final ParserLimits limits;
+    private final int parallelThreshold;
+    private final long inMemoryLimit;
+    private final int chunkBytes;
+
+    public ExecutionPlanner() {
+        this(ParserLimits.DEFAULT, DEFAULT_PARALLEL_THRESHOLD, DEFAULT_IN_MEMORY_LIMIT);
+    }
+
+    public ExecutionPlanner(ParserLimits limits, int parallelThreshold, long inMemoryLimit) {
+        this(limits, parallelThreshold, inMemoryLimit, DEFAULT_CHUNK_BYTES);
+    }
+
+    ExecutionPlanner(ParserLimits limits, int parallelThreshold, long inMemoryLimit, int chunkBytes) {
+        this.limits = limits;
+        this.parallelThreshold = parallelThreshold;
+        this.inMemoryLimit = inMemoryLimit;
+        this.chunkBytes = chunkBytes;
+    }
+
+    // looks only at the file size and the leading bytes: the kind of the root value and, for arrays, the number
+    // of elements extrapolated from the average size of the elements that fit in the sample
+    public ExecutionPlan plan(Path path) throws IOException {
+        long start = System.nanoTime();
+        long fileSize = Files.size(path);
+
+        byte[] sample;
+        try (InputStream in = Files.newInputStream(path)) {
+            sample = in.readNBytes((int) Math.min(fileSize, SAMPLE_SIZE));
+        }
+
+        boolean isArray = firstNonWhitespace(sample) == '[';
+        long estimatedCount = isArray ? estimateCount(sample, fileSize) : 1;
+
+        ExecutionStrategy strategy;
+        if (isArray && estimatedCount >= parallelThreshold && Runtime.getRuntime().availableProcessors() > 1) {
+            strategy = ExecutionStrategy.PARALLEL;
+        } else if (fileSize <= inMemoryLimit) {
+            strategy = ExecutionStrategy.IN_MEMORY_SEQUENTIAL;
+        } else {
+            strategy = ExecutionStrategy.STREAMING;
+        }
+
+        ExecutionPlan plan = new ExecutionPlan(strategy, fileSize, isArray, estimatedCount);
+        logger.info(() -> String.format(
+                "Planned %s for %s (%d bytes, %s, ~%d policies) in %.3f ms",
+                strategy, path, fileSize, isArray ? "array" : "single document", estimatedCount,
+                (System.nanoTime() - start) / 1e6
+        ));
+
+        return plan;
+    }
+
+    public long execute(ExecutionPlan plan, Path path, boolean isRobust, ReportWriter writer) throws IOException {
+        long start = System.nanoTime();
+
+        long count = switch (plan.strategy()) {
+            case IN_MEMORY_SEQUENTIAL -> {
+                try (RolePolicyReader reader = RolePolicyReader.fromBytes(Files.readAllBytes(path), limits)) {
+                    yield validateSequentially(reader, isRobust, writer);
+                }
+            }
+            case STREAMING -> {
+                try (RolePolicyReader reader = RolePolicyReader.fromPath(path.toString(), limits)) {
+                    yield validateSequentially(reader, isRobust, writer);
+                }
+            }
+            case PARALLEL -> validateInParallel(path, isRobust, writer);
+        };
+
+        long elapsed = System.nanoTime() - start;
+        logger.info(() -> String.format(
+                "Executed %s for %s: %d policies in %.3f ms (%.0f policies/s, estimated %d)",
+                plan.strategy(), path, count, elapsed / 1e6,
+                elapsed == 0 ? 0.0 : count * 1e9 / elapsed, plan.estimatedCount()
+        ));
+
+        return count;
+    }
+
+    private long validateSequentially(RolePolicyReader reader, boolean isRobust, ReportWriter writer) throws IOException {
+        long count = 0;
+        while (reader.next()) {
+            writer.write(resultOf(reader, isRobust));
+            count++;
+        }
+
+        return count;
+    }
+
+    // the file is cut into chunks of whole policies on this thread, which only scans the bytes, while parsing and
+    // validating the chunks runs on the common fork-join pool; results are written out in input order and at most
+    // a few chunks are held at a time, so memory stays bounded however large the input is
+    //
+    // once a chunk fails to parse the file is read again sequentially, skipping the policies that were already
+    // written, so malformed input ends the report exactly where, and with the same error as, the other strategies
+    private long validateInParallel(Path path, boolean isRobust, ReportWriter writer) throws IOException {
+        if (limits.maxDocumentLength() >= 0 && Files.size(path) > limits.maxDocumentLength()) {
+            return validateSkipping(path, 0, isRobust, writer);
+        }
+
+        long count = 0;
+        try (InputStream in = Files.newInputStream(path)) {
+            ArraySplitter splitter = new ArraySplitter(in, chunkBytes);
+            if (!splitter.isArray()) {
+                return validateSkipping(path, 0, isRobust, writer);
+            }
+
+            int maxPending = 2 * ForkJoinPool.getCommonPoolParallelism();
+            ArrayDeque<CompletableFuture<List<ValidationResult>>> pending = new ArrayDeque<>();
+            ArraySplitter.Chunk chunk = splitter.next();
+            while (chunk != null || !pending.isEmpty()) {
+                if (chunk != null && pending.size() < maxPending) {
+                    ArraySplitter.Chunk submitted = chunk;
+                    pending.addLast(CompletableFuture.supplyAsync(() -> validateChunk(submitted, isRobust), ForkJoinPool.commonPool()));
+                    chunk = splitter.next();
+                    continue;
+                }
+
+                List<ValidationResult> results = pending.removeFirst().join();
+                if (results == null) {
+                    return validateSkipping(path, count, isRobust, writer);
+                }
+                for (ValidationResult result : results) {
+                    writer.write(result);
+                }
+                count += results.size();
+            }
+        }
+
+        return count;
+    }
+
+    // null when the chunk could not be read to its end
+    private List<ValidationResult> validateChunk(ArraySplitter.Chunk chunk, boolean isRobust) {
+        List<ValidationResult> results = new ArrayList<>();
+        try (RolePolicyReader reader = chunk.position() == null
+                ? RolePolicyReader.fromBytes(chunk.json(), limits)
+                : RolePolicyReader.resumeFromBytes(chunk.json(), limits, chunk.position())) {
+            while (reader.next()) {
+                results.add(resultOf(reader, isRobust));
+            }
+        } catch (IOException ex) {
+            return null;
+        }
+
+        return results;
+    }
+
+    private long validateSkipping(Path path, long skipped, boolean isRobust, ReportWriter writer) throws IOException {
+        long count = 0;
+        try (RolePolicyReader reader = RolePolicyReader.fromPath(path.toString(), limits)) {
+            while (reader.next()) {
+                if (count++ >= skipped) {
+                    writer.write(resultOf(reader, isRobust));
+                }
+            }
+        }
+
+        return count;
+    }
+
+    static ValidationResult resultOf(RolePolicyReader reader, boolean isRobust) {
+        if (reader.failure() != null) {
+            return malformed(reader);
+        }
+
+        ValidationResult result = RolePolicyValidator.check(reader.index(), reader.rolePolicy(), isRobust);
+        return locate(result, reader.locations(), reader.locationOrdinal());
+    }
+
+    private static ValidationResult malformed(RolePolicyReader reader) {
+        JsonLocation location = reader.failureLocation();
+
+        return ValidationResult.malformed(
+                reader.index(),
+                reader.failure().getOriginalMessage(),
+                location.getByteOffset(),
+                location.getLineNr(),
+                location.getColumnNr()
+        );
+    }
+
+    private static ValidationResult locate(ValidationResult result, SourceLocations locations, int policy) {
+        if (result.isValid()) {
+            return result;
+        }
+
+        int statement = result.statementIndex();
+        if (statement >= 0 && statement < locations.statementCount(policy) && locations.statementLine(policy, statement) > 0) {
+            return result.at(
+                    locations.statementOffset(policy, statement),
+                    locations.statementLine(policy, statement),
+                    locations.statementColumn(policy, statement)
+            );
+        }
+
+        return result.at(locations.policyOffset(policy), locations.policyLine(policy), locations.policyColumn(policy));
+    }
+
+    private static int firstNonWhitespace(byte[] sample) {
+        for (byte b : sample) {
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return b;
+            }
+        }
+
+        return -1;
+    }
+
+    private long estimateCount(byte[] sample, long fileSize) throws IOException {
+        long completed = 0;
+        long completedBytes = 0;
+
+        try (JsonParser parser = sampleFactory.createParser(sample)) {
+            parser.nextToken();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+                completed++;
+                completedBytes = parser.currentLocation().getByteOffset();
+            }
+            if (token == JsonToken.END_ARRAY) {
+                return completed;
+            }
+        } catch (JsonProcessingException ex) {
+            // the sample ends in the middle of an element
+        }
+
+        if (completed == 0) {
+            return Math.max(1, fileSize / Math.max(1, sample.length));
+        }
+
+        return Math.max(completed, fileSize * completed / Math.max(1, completedBytes));
+    }
+}
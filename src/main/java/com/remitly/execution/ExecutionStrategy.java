@@ -0,0 +1,7 @@
+package com.remitly.execution;
+
+public enum ExecutionStrategy {
+    IN_MEMORY_SEQUENTIAL,
+    PARALLEL,
+    STREAMING
+}
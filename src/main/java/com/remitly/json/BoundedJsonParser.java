@@ -0,0 +1,108 @@
+package com.remitly.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+
+import java.io.IOException;
+
+class BoundedJsonParser extends JsonParserDelegate {
+
+    private final ParserLimits limits;
+
+    private long policyLength;
+
+    BoundedJsonParser(JsonParser parser, ParserLimits limits) {
+        super(parser);
+        this.limits = limits;
+    }
+
+    void startPolicy() {
+        policyLength = 0;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        JsonToken token = delegate.nextToken();
+        if (token != null) {
+            policyLengthCheck(token);
+            statementCountCheck(token);
+        }
+
+        return token;
+    }
+
+    @Override
+    public JsonToken nextValue() throws IOException {
+        JsonToken token = nextToken();
+        if (token == JsonToken.FIELD_NAME) {
+            token = nextToken();
+        }
+
+        return token;
+    }
+
+    // skipped content still counts towards the limits, so it cannot be handed to the delegate
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        if (!currentToken().isStructStart()) {
+            return this;
+        }
+
+        int open = 1;
+        while (open > 0) {
+            JsonToken token = nextToken();
+            if (token == null) {
+                return this;
+            } else if (token.isStructStart()) {
+                open++;
+            } else if (token.isStructEnd()) {
+                open--;
+            }
+        }
+
+        return this;
+    }
+
+    // approximates the minified policy size: whitespace and separators are not counted
+    private void policyLengthCheck(JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY -> policyLength += 1;
+            case FIELD_NAME -> policyLength += delegate.currentName().length() + 3;
+            case VALUE_STRING -> policyLength += delegate.getTextLength() + 2;
+            default -> policyLength += delegate.getTextLength();
+        }
+
+        if (policyLength > limits.maxPolicyLength()) {
+            throw new PolicyLimitException(
+                    "Role policy is too long (maximum length is " + limits.maxPolicyLength() + ")",
+                    delegate.currentTokenLocation()
+            );
+        }
+    }
+
+    private void statementCountCheck(JsonToken token) throws IOException {
+        if (token.isStructEnd() || token == JsonToken.FIELD_NAME) {
+            return;
+        }
+
+        JsonStreamContext context = token.isStructStart()
+                ? delegate.getParsingContext().getParent()
+                : delegate.getParsingContext();
+        if (!context.inArray() || context.getCurrentIndex() < limits.maxStatementCount()) {
+            return;
+        }
+
+        JsonStreamContext statementContext = context.getParent();
+        if (statementContext.inObject()
+         && "Statement".equals(statementContext.getCurrentName())
+         && "PolicyDocument".equals(statementContext.getParent().getCurrentName())
+        ) {
+            throw new PolicyLimitException(
+                    "Policy document has too many statements (maximum count is " + limits.maxStatementCount() + ")",
+                    delegate.currentTokenLocation()
+            );
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.remitly.json;
+
+import com.fasterxml.jackson.core.JsonLocation;
+
+// where a parser that was started in the middle of a file begins, the parser is fed prefixLength synthetic bytes
+// first, so its own positions are shifted back onto the file: the first real byte is at offset, line and column
+record InputOrigin(long offset, int line, int column, int prefixLength) {
+
+    JsonLocation translate(JsonLocation location) {
+        if (location == null) {
+            return null;
+        }
+
+        int columnNr = location.getLineNr() == 1
+                ? location.getColumnNr() - prefixLength - 1 + column
+                : location.getColumnNr();
+
+        return new JsonLocation(
+                location.contentReference(),
+                location.getByteOffset() < 0 ? -1 : location.getByteOffset() - prefixLength + offset,
+                location.getCharOffset() < 0 ? -1 : location.getCharOffset() - prefixLength + offset,
+                location.getLineNr() + line - 1,
+                columnNr
+        );
+    }
+}
@@ -1,34 +1,177 @@
 package com.remitly.json;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.remitly.model.RolePolicy;
 
 import javax.management.relation.Role;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 
 public class JSONParser {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final JsonFactory jsonFactory = createJsonFactory(ParserLimits.DEFAULT);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper(jsonFactory)
+            .registerModule(LocationRecordingDeserializer.module());
+
+    private static final ObjectReader rolePolicyReader = objectMapper.readerFor(RolePolicy.class);
 
     private JSONParser() {}
 
     public static RolePolicy parseDocument(String json) throws IOException {
-        return objectMapper.readValue(json, new TypeReference<RolePolicy>() {});
+        return parseDocument(json, ParserLimits.DEFAULT);
+    }
+
+    public static RolePolicy parseDocument(String json, ParserLimits limits) throws IOException {
+        try (BoundedJsonParser parser = createBoundedParser(json, limits)) {
+            return readDocument(parser);
+        }
+    }
+
+    public static RolePolicy parseDocument(byte[] json) throws IOException {
+        return parseDocument(json, ParserLimits.DEFAULT);
+    }
+
+    public static RolePolicy parseDocument(byte[] json, ParserLimits limits) throws IOException {
+        try (BoundedJsonParser parser = createBoundedParser(json, limits)) {
+            return readDocument(parser);
+        }
     }
 
     public static RolePolicy parseDocumentFromPath(String filepath) throws IOException {
-        return objectMapper.readValue(new File(filepath), new TypeReference<RolePolicy>() {});
+        return parseDocumentFromPath(filepath, ParserLimits.DEFAULT);
+    }
+
+    public static RolePolicy parseDocumentFromPath(String filepath, ParserLimits limits) throws IOException {
+        try (BoundedJsonParser parser = createBoundedParser(new File(filepath), limits)) {
+            return readDocument(parser);
+        }
+    }
+
+    public static RolePolicy parseDocumentFromPath(String filepath, ParserLimits limits, SourceLocations locations) throws IOException {
+        try (BoundedJsonParser parser = createBoundedParser(new File(filepath), limits)) {
+            return readDocument(parser, rolePolicyReader(locations));
+        }
     }
 
     public static ArrayList<RolePolicy> parseDocuments(String json) throws IOException {
-        return objectMapper.readValue(json, new TypeReference<ArrayList<RolePolicy>>() {});
+        return parseDocuments(json, ParserLimits.DEFAULT);
+    }
+
+    public static ArrayList<RolePolicy> parseDocuments(String json, ParserLimits limits) throws IOException {
+        try (BoundedJsonParser parser = createBoundedParser(json, limits)) {
+            return readDocuments(parser);
+        }
     }
 
     public static ArrayList<RolePolicy> parseDocumentsFromPath(String filepath) throws IOException {
-        return objectMapper.readValue(new File(filepath), new TypeReference<ArrayList<RolePolicy>>() {});
+        return parseDocumentsFromPath(filepath, ParserLimits.DEFAULT);
+    }
+
+    public static ArrayList<RolePolicy> parseDocumentsFromPath(String filepath, ParserLimits limits) throws IOException {
+        try (BoundedJsonParser parser = createBoundedParser(new File(filepath), limits)) {
+            return readDocuments(parser);
+        }
+    }
+
+    public static ArrayList<RolePolicy> parseDocumentsFromPath(String filepath, ParserLimits limits, SourceLocations locations) throws IOException {
+        try (BoundedJsonParser parser = createBoundedParser(new File(filepath), limits)) {
+            return readDocuments(parser, rolePolicyReader(locations));
+        }
+    }
+
+    // streaming access for callers that inspect the document without binding it, the same limits apply
+    public static JsonParser createParser(byte[] json, ParserLimits limits) throws IOException {
+        return createBoundedParser(json, limits);
+    }
+
+    private static RolePolicy readDocument(BoundedJsonParser parser) throws IOException {
+        return readDocument(parser, rolePolicyReader);
+    }
+
+    private static RolePolicy readDocument(BoundedJsonParser parser, ObjectReader reader) throws IOException {
+        parser.startPolicy();
+        return readPolicy(parser, reader);
+    }
+
+    // reads the array element by element, so that the per-policy limits apply to each of them separately
+    private static ArrayList<RolePolicy> readDocuments(BoundedJsonParser parser) throws IOException {
+        return readDocuments(parser, rolePolicyReader);
+    }
+
+    private static ArrayList<RolePolicy> readDocuments(BoundedJsonParser parser, ObjectReader reader) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token != JsonToken.START_ARRAY) {
+            throw MismatchedInputException.from(parser, ArrayList.class, "Expected an array of role policies");
+        }
+
+        ArrayList<RolePolicy> rolePolicies = new ArrayList<>();
+        while (true) {
+            parser.startPolicy();
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                return rolePolicies;
+            }
+            rolePolicies.add(readPolicy(parser, reader));
+        }
+    }
+
+    // databind wraps limit violations raised inside nested deserializers, callers should see them as is
+    static RolePolicy readPolicy(BoundedJsonParser parser, ObjectReader reader) throws IOException {
+        try {
+            return reader.readValue(parser);
+        } catch (JsonMappingException ex) {
+            if (ex.getCause() instanceof StreamConstraintsException constraintsException) {
+                throw constraintsException;
+            }
+            throw ex;
+        }
+    }
+
+    private static BoundedJsonParser createBoundedParser(String json, ParserLimits limits) throws IOException {
+        return new BoundedJsonParser(jsonFactory(limits).createParser(json), limits);
+    }
+
+    static BoundedJsonParser createBoundedParser(byte[] json, ParserLimits limits) throws IOException {
+        return new BoundedJsonParser(jsonFactory(limits).createParser(json), limits);
+    }
+
+    static ObjectReader rolePolicyReader(SourceLocations locations) {
+        return locations == null ? rolePolicyReader : rolePolicyReader.withAttribute(SourceLocations.class, locations);
+    }
+
+    static BoundedJsonParser createBoundedParser(File file, ParserLimits limits) throws IOException {
+        return new BoundedJsonParser(jsonFactory(limits).createParser(file), limits);
+    }
+
+    static BoundedJsonParser createBoundedParser(InputStream in, ParserLimits limits) throws IOException {
+        return new BoundedJsonParser(jsonFactory(limits).createParser(in), limits);
+    }
+
+    private static JsonFactory jsonFactory(ParserLimits limits) {
+        return limits.equals(ParserLimits.DEFAULT) ? jsonFactory : createJsonFactory(limits);
+    }
+
+    private static JsonFactory createJsonFactory(ParserLimits limits) {
+        return JsonFactory.builder()
+                .streamReadConstraints(StreamReadConstraints.builder()
+                        .maxNestingDepth(limits.maxNestingDepth())
+                        .maxStringLength(limits.maxPolicyLength())
+                        .maxNameLength(limits.maxPolicyLength())
+                        .maxDocumentLength(limits.maxDocumentLength())
+                        .build())
+                .build();
     }
 
 }
@@ -0,0 +1,64 @@
+package com.remitly.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.remitly.model.RolePolicy;
+import com.remitly.model.Statement;
+
+import java.io.IOException;
+
+// records where each role policy and statement starts into the SourceLocations attribute of the current read,
+// reads without that attribute pay only for the lookup
+class LocationRecordingDeserializer extends DelegatingDeserializer {
+
+    private final boolean isStatement;
+
+    private LocationRecordingDeserializer(JsonDeserializer<?> delegatee, boolean isStatement) {
+        super(delegatee);
+        this.isStatement = isStatement;
+    }
+
+    static SimpleModule module() {
+        return new SimpleModule().setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription description, JsonDeserializer<?> deserializer) {
+                if (description.getBeanClass() == RolePolicy.class) {
+                    return new LocationRecordingDeserializer(deserializer, false);
+                } else if (description.getBeanClass() == Statement.class) {
+                    return new LocationRecordingDeserializer(deserializer, true);
+                }
+
+                return deserializer;
+            }
+        });
+    }
+
+    @Override
+    protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> delegatee) {
+        return new LocationRecordingDeserializer(delegatee, isStatement);
+    }
+
+    @Override
+    public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (context.getAttribute(SourceLocations.class) instanceof SourceLocations locations) {
+            if (!isStatement) {
+                locations.addPolicy(parser.currentTokenLocation());
+            } else {
+                // the statement object has its own context already, the array it belongs to knows its index
+                JsonStreamContext array = parser.getParsingContext().getParent();
+                if (array != null && array.inArray()) {
+                    locations.addStatement(array.getCurrentIndex(), parser.currentTokenLocation());
+                }
+            }
+        }
+
+        return super.deserialize(parser, context);
+    }
+}
@@ -0,0 +1,44 @@
+package com.remitly.json;
+
+public record ParserLimits(
+        int maxPolicyLength,
+        int maxStatementCount,
+        int maxNestingDepth,
+        long maxDocumentLength
+) {
+
+    // AWS caps the combined size of all inline policies of a role at 10,240 characters (whitespace excluded); it is
+    // applied here to every policy on its own, a deliberately looser limit that no inline policy of a real role can
+    // exceed and that also bounds the number of statements such a policy can hold
+    public static final ParserLimits DEFAULT = new ParserLimits(10_240, 1_000, 32, -1);
+
+    public static final ParserLimits UNLIMITED = new ParserLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, -1);
+
+    public ParserLimits {
+        if (maxPolicyLength <= 0) {
+            throw new IllegalArgumentException("Maximum policy length has to be positive");
+        }
+        if (maxStatementCount <= 0) {
+            throw new IllegalArgumentException("Maximum statement count has to be positive");
+        }
+        if (maxNestingDepth <= 0) {
+            throw new IllegalArgumentException("Maximum nesting depth has to be positive");
+        }
+    }
+
+    public ParserLimits withMaxPolicyLength(int maxPolicyLength) {
+        return new ParserLimits(maxPolicyLength, maxStatementCount, maxNestingDepth, maxDocumentLength);
+    }
+
+    public ParserLimits withMaxStatementCount(int maxStatementCount) {
+        return new ParserLimits(maxPolicyLength, maxStatementCount, maxNestingDepth, maxDocumentLength);
+    }
+
+    public ParserLimits withMaxNestingDepth(int maxNestingDepth) {
+        return new ParserLimits(maxPolicyLength, maxStatementCount, maxNestingDepth, maxDocumentLength);
+    }
+
+    public ParserLimits withMaxDocumentLength(long maxDocumentLength) {
+        return new ParserLimits(maxPolicyLength, maxStatementCount, maxNestingDepth, maxDocumentLength);
+    }
+}
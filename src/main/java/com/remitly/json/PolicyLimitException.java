@@ -0,0 +1,13 @@
+package com.remitly.json;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+
+// thrown by the per-policy limits once a complete token has been read, unlike the constraints enforced by Jackson
+// itself it leaves the parser in a state from which the rest of the policy can be skipped
+class PolicyLimitException extends StreamConstraintsException {
+
+    PolicyLimitException(String message, JsonLocation location) {
+        super(message, location);
+    }
+}
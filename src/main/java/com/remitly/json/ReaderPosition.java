@@ -0,0 +1,5 @@
+package com.remitly.json;
+
+// the input position right after the role policy with the given index, offset in bytes
+public record ReaderPosition(long offset, int line, int column, long index) {
+}
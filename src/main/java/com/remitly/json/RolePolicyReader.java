@@ -0,0 +1,211 @@
+package com.remitly.json;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.remitly.model.RolePolicy;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+// reads role policies one at a time from either a single document or an array of them, so that arbitrarily
+// large inputs can be processed without materializing the whole list
+public class RolePolicyReader implements Closeable {
+
+    // a resumed array is opened with a placeholder element, which the separator that follows the last read
+    // policy turns back into valid JSON
+    private static final byte[] RESUME_PREFIX = "[0".getBytes(StandardCharsets.US_ASCII);
+
+    private final BoundedJsonParser parser;
+    private final SourceLocations locations;
+    private final boolean isClearingLocations;
+    private final ObjectReader reader;
+    private final InputOrigin origin;
+
+    private boolean isArray;
+    private boolean isStarted;
+    private boolean isFinished;
+
+    private long index = -1;
+    private RolePolicy rolePolicy;
+    private JsonProcessingException failure;
+    private JsonLocation policyLocation;
+
+    private RolePolicyReader(BoundedJsonParser parser, SourceLocations locations, boolean isClearingLocations) {
+        this(parser, locations, isClearingLocations, null);
+    }
+
+    private RolePolicyReader(BoundedJsonParser parser, SourceLocations locations, boolean isClearingLocations, InputOrigin origin) {
+        this.parser = parser;
+        this.locations = locations;
+        this.isClearingLocations = isClearingLocations;
+        this.reader = JSONParser.rolePolicyReader(locations);
+        this.origin = origin;
+        locations.setOrigin(origin);
+    }
+
+    public static RolePolicyReader fromPath(String filepath) throws IOException {
+        return fromPath(filepath, ParserLimits.DEFAULT);
+    }
+
+    public static RolePolicyReader fromPath(String filepath, ParserLimits limits) throws IOException {
+        return new RolePolicyReader(JSONParser.createBoundedParser(new File(filepath), limits), new SourceLocations(), true);
+    }
+
+    public static RolePolicyReader fromBytes(byte[] json, ParserLimits limits) throws IOException {
+        return new RolePolicyReader(JSONParser.createBoundedParser(json, limits), new SourceLocations(), true);
+    }
+
+    // the given locations are appended to and never cleared by the reader, one policy entry per read element
+    public static RolePolicyReader fromBytes(byte[] json, ParserLimits limits, SourceLocations locations) throws IOException {
+        return new RolePolicyReader(JSONParser.createBoundedParser(json, limits), locations, false);
+    }
+
+    // continues an array of role policies right after the policy recorded in position, the file is read from the
+    // position onwards only and indexes and locations carry on from where the earlier reader stopped
+    public static RolePolicyReader resumeFromPath(String filepath, ParserLimits limits, ReaderPosition position) throws IOException {
+        FileChannel channel = FileChannel.open(Path.of(filepath)).position(position.offset());
+        return resume(Channels.newInputStream(channel), limits, position);
+    }
+
+    // the same for input that is already in memory, json holds it from the position onwards
+    public static RolePolicyReader resumeFromBytes(byte[] json, ParserLimits limits, ReaderPosition position) throws IOException {
+        return resume(new ByteArrayInputStream(json), limits, position);
+    }
+
+    private static RolePolicyReader resume(InputStream remainder, ParserLimits limits, ReaderPosition position) throws IOException {
+        InputStream in = new SequenceInputStream(new ByteArrayInputStream(RESUME_PREFIX), remainder);
+        InputOrigin origin = new InputOrigin(position.offset(), position.line(), position.column(), RESUME_PREFIX.length);
+
+        RolePolicyReader reader = new RolePolicyReader(JSONParser.createBoundedParser(in, limits), new SourceLocations(), true, origin);
+        reader.index = position.index();
+        return reader;
+    }
+
+    // advances to the next role policy; a policy that could not be bound or that exceeds the policy length or
+    // statement count limit is reported through failure() and skipped, while malformed JSON and the limits
+    // enforced by Jackson itself cannot be recovered from and are thrown
+    public boolean next() throws IOException {
+        if (isFinished) {
+            return false;
+        }
+
+        rolePolicy = null;
+        failure = null;
+        if (isClearingLocations) {
+            locations.clear();
+        }
+        parser.startPolicy();
+
+        JsonToken token = null;
+        if (!isStarted) {
+            isStarted = true;
+            token = parser.nextToken();
+            isArray = token == JsonToken.START_ARRAY;
+            if (isArray) {
+                token = parser.nextToken();
+            }
+            if (origin != null) {
+                token = parser.nextToken();
+            }
+        } else if (isArray) {
+            token = parser.nextToken();
+        }
+
+        if (token == null || token == JsonToken.END_ARRAY) {
+            isFinished = true;
+            return false;
+        }
+
+        index++;
+        JsonLocation tokenLocation = parser.currentTokenLocation();
+        policyLocation = translate(tokenLocation);
+        int depth = parser.getParsingContext().getNestingDepth() - (token.isStructStart() ? 1 : 0);
+        int policyCount = locations.policyCount();
+        try {
+            rolePolicy = JSONParser.readPolicy(parser, reader);
+        } catch (JsonMappingException | PolicyLimitException ex) {
+            failure = ex;
+            skipRemainder(depth);
+        }
+
+        // null elements never reach the deserializer, they still get an entry to keep ordinals aligned
+        if (locations.policyCount() == policyCount) {
+            locations.addPolicy(tokenLocation);
+        }
+
+        return true;
+    }
+
+    public long index() {
+        return index;
+    }
+
+    public RolePolicy rolePolicy() {
+        return rolePolicy;
+    }
+
+    public JsonProcessingException failure() {
+        return failure;
+    }
+
+    public JsonLocation currentLocation() {
+        return translate(parser.currentLocation());
+    }
+
+    public JsonLocation policyLocation() {
+        return policyLocation;
+    }
+
+    // where binding the current policy failed, or where the policy starts when that is not known
+    public JsonLocation failureLocation() {
+        return failure.getLocation() != null ? translate(failure.getLocation()) : policyLocation;
+    }
+
+    public boolean isArray() {
+        return isArray;
+    }
+
+    // a reader resumed from this position continues with the next policy
+    public ReaderPosition position() {
+        JsonLocation location = currentLocation();
+        return new ReaderPosition(location.getByteOffset(), location.getLineNr(), location.getColumnNr(), index);
+    }
+
+    public SourceLocations locations() {
+        return locations;
+    }
+
+    // ordinal of the current role policy within locations(), always 0 unless the locations were passed in
+    public int locationOrdinal() {
+        return locations.policyCount() - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private JsonLocation translate(JsonLocation location) {
+        return origin != null ? origin.translate(location) : location;
+    }
+
+    // the rest of a failed policy is skipped past the limits, which it may already have exceeded
+    private void skipRemainder(int depth) throws IOException {
+        while (parser.delegate().getParsingContext().getNestingDepth() > depth) {
+            if (parser.delegate().nextToken() == null) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.remitly.json;
+
+import com.fasterxml.jackson.core.JsonLocation;
+
+import java.util.Arrays;
+
+// positions of the parsed role policies and statements, kept in flat arrays keyed by ordinal instead of on the
+// records themselves; statements of policy p occupy the ordinals from firstStatement[p] to firstStatement[p + 1]
+// and offsets are in bytes, -1 for textual input where Jackson only knows character offsets
+public class SourceLocations {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] policyOffsets = new long[INITIAL_CAPACITY];
+    private int[] policyPositions = new int[INITIAL_CAPACITY * 2];
+    private int[] firstStatements = new int[INITIAL_CAPACITY + 1];
+    private int policyCount;
+
+    private long[] statementOffsets = new long[INITIAL_CAPACITY];
+    private int[] statementPositions = new int[INITIAL_CAPACITY * 2];
+    private int statementCount;
+
+    private InputOrigin origin;
+
+    public int policyCount() {
+        return policyCount;
+    }
+
+    public int statementCount(int policy) {
+        checkPolicy(policy);
+        return firstStatements[policy + 1] - firstStatements[policy];
+    }
+
+    public long policyOffset(int policy) {
+        checkPolicy(policy);
+        return policyOffsets[policy];
+    }
+
+    public int policyLine(int policy) {
+        checkPolicy(policy);
+        return policyPositions[policy * 2];
+    }
+
+    public int policyColumn(int policy) {
+        checkPolicy(policy);
+        return policyPositions[policy * 2 + 1];
+    }
+
+    // statements that were never deserialized, such as null entries, have an offset, line and column of -1
+    public long statementOffset(int policy, int statement) {
+        return statementOffsets[statementOrdinal(policy, statement)];
+    }
+
+    public int statementLine(int policy, int statement) {
+        return statementPositions[statementOrdinal(policy, statement) * 2];
+    }
+
+    public int statementColumn(int policy, int statement) {
+        return statementPositions[statementOrdinal(policy, statement) * 2 + 1];
+    }
+
+    public void clear() {
+        policyCount = 0;
+        statementCount = 0;
+    }
+
+    void setOrigin(InputOrigin origin) {
+        this.origin = origin;
+    }
+
+    void addPolicy(JsonLocation location) {
+        if (origin != null) {
+            location = origin.translate(location);
+        }
+        if (policyCount + 1 == firstStatements.length) {
+            policyOffsets = Arrays.copyOf(policyOffsets, policyOffsets.length * 2);
+            policyPositions = Arrays.copyOf(policyPositions, policyPositions.length * 2);
+            firstStatements = Arrays.copyOf(firstStatements, policyOffsets.length + 1);
+        }
+
+        policyOffsets[policyCount] = offset(location);
+        policyPositions[policyCount * 2] = location.getLineNr();
+        policyPositions[policyCount * 2 + 1] = location.getColumnNr();
+        firstStatements[policyCount] = statementCount;
+        policyCount++;
+        firstStatements[policyCount] = statementCount;
+    }
+
+    void addStatement(int statement, JsonLocation location) {
+        if (policyCount == 0) {
+            return;
+        }
+
+        if (origin != null) {
+            location = origin.translate(location);
+        }
+
+        int ordinal = firstStatements[policyCount - 1] + statement;
+        while (statementCount <= ordinal) {
+            if (statementCount == statementOffsets.length) {
+                statementOffsets = Arrays.copyOf(statementOffsets, statementOffsets.length * 2);
+                statementPositions = Arrays.copyOf(statementPositions, statementPositions.length * 2);
+            }
+            statementOffsets[statementCount] = -1;
+            statementPositions[statementCount * 2] = -1;
+            statementPositions[statementCount * 2 + 1] = -1;
+            statementCount++;
+        }
+
+        statementOffsets[ordinal] = offset(location);
+        statementPositions[ordinal * 2] = location.getLineNr();
+        statementPositions[ordinal * 2 + 1] = location.getColumnNr();
+        firstStatements[policyCount] = statementCount;
+    }
+
+    private int statementOrdinal(int policy, int statement) {
+        if (statement < 0 || statement >= statementCount(policy)) {
+            throw new IndexOutOfBoundsException("Statement " + statement + " of policy " + policy + " has no recorded location");
+        }
+
+        return firstStatements[policy] + statement;
+    }
+
+    private void checkPolicy(int policy) {
+        if (policy < 0 || policy >= policyCount) {
+            throw new IndexOutOfBoundsException("Policy " + policy + " has no recorded location");
+        }
+    }
+
+    private static long offset(JsonLocation location) {
+        return location.getByteOffset();
+    }
+}
@@ -0,0 +1,77 @@
+package com.remitly.report;
+
+import com.remitly.validator.ValidationResult;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// the test counts are not known until the end of the stream, so the testsuite element goes without them
+public class JUnitXmlReportWriter implements ReportWriter {
+
+    private final XMLStreamWriter writer;
+
+    public JUnitXmlReportWriter(OutputStream out, String source) throws IOException {
+        try {
+            this.writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement("testsuite");
+            writer.writeAttribute("name", source);
+        } catch (XMLStreamException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public void write(ValidationResult result) throws IOException {
+        try {
+            writer.writeStartElement("testcase");
+            writer.writeAttribute("classname", "policies[" + result.policyIndex() + "]");
+            writer.writeAttribute("name", result.policyName() != null ? result.policyName() : "");
+
+            if (!result.isValid()) {
+                writer.writeStartElement("failure");
+                writer.writeAttribute("type", result.rule().name());
+                writer.writeAttribute("message", result.message() != null ? result.message() : "");
+                writer.writeCharacters(details(result));
+                writer.writeEndElement();
+            }
+
+            writer.writeEndElement();
+        } catch (XMLStreamException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        } catch (XMLStreamException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    private static String details(ValidationResult result) {
+        StringBuilder details = new StringBuilder(result.rule().description());
+        if (result.statementIndex() >= 0) {
+            details.append(" (statement ").append(result.statementIndex());
+            if (result.sid() != null) {
+                details.append(", Sid ").append(result.sid());
+            }
+            details.append(')');
+        }
+        if (result.line() > 0) {
+            details.append(" at line ").append(result.line()).append(", column ").append(result.column());
+            details.append(" (offset ").append(result.offset()).append(')');
+        }
+
+        return details.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.remitly.report;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.remitly.validator.ValidationResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class JsonReportWriter implements ReportWriter {
+
+    private final JsonGenerator generator;
+
+    private long validCount;
+    private long invalidCount;
+
+    public JsonReportWriter(OutputStream out, String source) throws IOException {
+        this.generator = new JsonFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        generator.writeStartObject();
+        generator.writeStringField("source", source);
+        generator.writeArrayFieldStart("results");
+    }
+
+    @Override
+    public void write(ValidationResult result) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("policyIndex", result.policyIndex());
+        generator.writeStringField("policyName", result.policyName());
+        generator.writeBooleanField("valid", result.isValid());
+
+        if (!result.isValid()) {
+            invalidCount++;
+            generator.writeStringField("rule", result.rule().name());
+            generator.writeStringField("message", result.message());
+            if (result.statementIndex() >= 0) {
+                generator.writeNumberField("statementIndex", result.statementIndex());
+                generator.writeStringField("sid", result.sid());
+            }
+            if (result.line() > 0) {
+                generator.writeNumberField("offset", result.offset());
+                generator.writeNumberField("line", result.line());
+                generator.writeNumberField("column", result.column());
+            }
+        } else {
+            validCount++;
+        }
+
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.writeObjectFieldStart("summary");
+        generator.writeNumberField("total", validCount + invalidCount);
+        generator.writeNumberField("valid", validCount);
+        generator.writeNumberField("invalid", invalidCount);
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.close();
+    }
+}
@@ -0,0 +1,28 @@
+package com.remitly.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public enum ReportFormat {
+    JSON,
+    SARIF,
+    JUNIT;
+
+    public static ReportFormat fromName(String name) {
+        for (ReportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported report format: " + name);
+    }
+
+    public ReportWriter createWriter(OutputStream out, String source) throws IOException {
+        return switch (this) {
+            case JSON -> new JsonReportWriter(out, source);
+            case SARIF -> new SarifReportWriter(out, source);
+            case JUNIT -> new JUnitXmlReportWriter(out, source);
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.remitly.report;
+
+import com.remitly.validator.ValidationResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// writers stream every result to the underlying output as it arrives and only complete the document on close,
+// the output itself is owned by the caller and is flushed, but not closed
+public interface ReportWriter extends Closeable {
+
+    void write(ValidationResult result) throws IOException;
+
+}
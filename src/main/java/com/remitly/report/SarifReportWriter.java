@@ -0,0 +1,109 @@
+package com.remitly.report;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.remitly.exception.ValidationRule;
+import com.remitly.validator.ValidationResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// SARIF 2.1.0, only violations are reported as results
+public class SarifReportWriter implements ReportWriter {
+
+    private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+
+    private final JsonGenerator generator;
+    private final String source;
+
+    public SarifReportWriter(OutputStream out, String source) throws IOException {
+        this.generator = new JsonFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.source = source;
+
+        generator.writeStartObject();
+        generator.writeStringField("$schema", SCHEMA);
+        generator.writeStringField("version", "2.1.0");
+        generator.writeArrayFieldStart("runs");
+        generator.writeStartObject();
+        writeTool();
+        generator.writeArrayFieldStart("results");
+    }
+
+    @Override
+    public void write(ValidationResult result) throws IOException {
+        if (result.isValid()) {
+            return;
+        }
+
+        generator.writeStartObject();
+        generator.writeStringField("ruleId", result.rule().name());
+        generator.writeNumberField("ruleIndex", result.rule().ordinal());
+        generator.writeStringField("level", "error");
+        generator.writeObjectFieldStart("message");
+        generator.writeStringField("text", result.message());
+        generator.writeEndObject();
+
+        generator.writeArrayFieldStart("locations");
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("physicalLocation");
+        generator.writeObjectFieldStart("artifactLocation");
+        generator.writeStringField("uri", source);
+        generator.writeEndObject();
+        if (result.line() > 0) {
+            generator.writeObjectFieldStart("region");
+            generator.writeNumberField("startLine", result.line());
+            generator.writeNumberField("startColumn", result.column());
+            if (result.offset() >= 0) {
+                generator.writeNumberField("byteOffset", result.offset());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("logicalLocations");
+        generator.writeStartObject();
+        generator.writeStringField("fullyQualifiedName", logicalName(result));
+        generator.writeStringField("kind", "object");
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private void writeTool() throws IOException {
+        generator.writeObjectFieldStart("tool");
+        generator.writeObjectFieldStart("driver");
+        generator.writeStringField("name", "AWS-IAM-Role-JSON-Verification-Tool");
+        generator.writeArrayFieldStart("rules");
+        for (ValidationRule rule : ValidationRule.values()) {
+            generator.writeStartObject();
+            generator.writeStringField("id", rule.name());
+            generator.writeObjectFieldStart("shortDescription");
+            generator.writeStringField("text", rule.description());
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static String logicalName(ValidationResult result) {
+        String name = "policies[" + result.policyIndex() + "]";
+        if (result.statementIndex() >= 0) {
+            name += ".Statement[" + result.statementIndex() + "]";
+        }
+
+        return name;
+    }
+}
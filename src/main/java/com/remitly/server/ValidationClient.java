@@ -0,0 +1,112 @@
+package com.remitly.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// submitted requests are buffered until flush, so a batch of policies goes out in as few packets as possible
+// and the responses complete their futures in whatever order the server finishes them
+public class ValidationClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final OutputStream out;
+    private final Map<Integer, CompletableFuture<ValidationResponse>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRequestId = new AtomicInteger();
+    private final Thread readerThread;
+    private volatile IOException failure;
+
+    public ValidationClient(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        this.out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+
+        this.readerThread = new Thread(this::readResponses, "validation-client-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    public synchronized CompletableFuture<ValidationResponse> submit(byte[] json, boolean isRobust) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+
+        int requestId = nextRequestId.getAndIncrement();
+        CompletableFuture<ValidationResponse> future = new CompletableFuture<>();
+        pending.put(requestId, future);
+
+        ByteBuffer frame = ValidationProtocol.encodeRequest(requestId, isRobust, json);
+        out.write(frame.array(), 0, frame.limit());
+
+        // the reader may have failed the pending requests before this one was registered
+        if (failure != null && pending.remove(requestId) != null) {
+            future.completeExceptionally(new UncheckedIOException(failure));
+        }
+
+        return future;
+    }
+
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    public ValidationResponse validate(byte[] json, boolean isRobust) throws IOException {
+        CompletableFuture<ValidationResponse> future = submit(json, isRobust);
+        flush();
+        return future.join();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private void readResponses() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024))) {
+            while (true) {
+                int length = in.readInt();
+                if (length < ValidationProtocol.RESPONSE_HEADER_BYTES || length > ValidationProtocol.MAX_FRAME_LENGTH) {
+                    throw new IOException("Invalid response frame length " + length);
+                }
+
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+
+                ValidationResponse response = ValidationProtocol.decodeResponse(ByteBuffer.wrap(frame));
+                CompletableFuture<ValidationResponse> future = pending.remove(response.requestId());
+                if (future != null) {
+                    future.complete(response);
+                }
+            }
+        } catch (EOFException ex) {
+            failPending(new IOException("Connection closed by the server", ex));
+        } catch (IOException ex) {
+            failPending(ex);
+        } catch (RuntimeException ex) {
+            failPending(new IOException("Could not read a response", ex));
+        }
+    }
+
+    private void failPending(IOException ex) {
+        failure = ex;
+        for (Integer requestId : pending.keySet()) {
+            CompletableFuture<ValidationResponse> future = pending.remove(requestId);
+            if (future != null) {
+                future.completeExceptionally(new UncheckedIOException(ex));
+            }
+        }
+    }
+}
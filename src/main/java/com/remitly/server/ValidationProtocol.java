@@ -0,0 +1,113 @@
+package com.remitly.server;
+
+import com.remitly.exception.ValidationRule;
+import com.remitly.validator.ValidationResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// every frame is prefixed with its length as a big-endian int, which does not count the prefix itself
+//
+// request:  int requestId | byte flags | role policy JSON
+// response: int requestId | byte rule code, -1 when valid | int statement index, -1 when none | UTF-8 message
+public class ValidationProtocol {
+
+    public static final int MAX_FRAME_LENGTH = 1 << 20;
+
+    public static final byte FLAG_ROBUST = 1;
+
+    static final int LENGTH_BYTES = Integer.BYTES;
+    static final int REQUEST_HEADER_BYTES = Integer.BYTES + Byte.BYTES;
+    static final int RESPONSE_HEADER_BYTES = Integer.BYTES + Byte.BYTES + Integer.BYTES;
+
+    private ValidationProtocol() {}
+
+    public static ByteBuffer encodeRequest(int requestId, boolean isRobust, byte[] json) {
+        if (REQUEST_HEADER_BYTES + json.length > MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException("Role policy does not fit in a single frame");
+        }
+
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_BYTES + REQUEST_HEADER_BYTES + json.length);
+        frame.putInt(REQUEST_HEADER_BYTES + json.length)
+                .putInt(requestId)
+                .put(isRobust ? FLAG_ROBUST : 0)
+                .put(json);
+
+        return frame.flip();
+    }
+
+    public static ByteBuffer encodeResponse(int requestId, ValidationResult result) {
+        byte[] message = result.isValid() || result.message() == null
+                ? new byte[0]
+                : result.message().getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_BYTES + RESPONSE_HEADER_BYTES + message.length);
+        frame.putInt(RESPONSE_HEADER_BYTES + message.length)
+                .putInt(requestId)
+                .put(result.isValid() ? -1 : ruleCode(result.rule()))
+                .putInt(result.statementIndex())
+                .put(message);
+
+        return frame.flip();
+    }
+
+    // the frame is expected without its length prefix
+    public static ValidationResponse decodeResponse(ByteBuffer frame) throws IOException {
+        int requestId = frame.getInt();
+        byte code = frame.get();
+        int statementIndex = frame.getInt();
+        byte[] message = new byte[frame.remaining()];
+        frame.get(message);
+
+        return new ValidationResponse(
+                requestId,
+                code < 0,
+                code < 0 ? null : rule(code),
+                statementIndex,
+                code < 0 ? null : new String(message, StandardCharsets.UTF_8)
+        );
+    }
+
+    // codes are part of the wire format: they never change once assigned, new rules get new codes
+    static byte ruleCode(ValidationRule rule) {
+        return switch (rule) {
+            case ROLE_POLICY_MISSING -> 0;
+            case POLICY_NAME_MISSING -> 1;
+            case POLICY_NAME_FORMAT -> 2;
+            case POLICY_NAME_LENGTH -> 3;
+            case POLICY_DOCUMENT_MISSING -> 4;
+            case VERSION_MISSING -> 5;
+            case VERSION_UNSUPPORTED -> 6;
+            case STATEMENT_MISSING -> 7;
+            case EFFECT_INVALID -> 8;
+            case PRINCIPAL_NOT_ALLOWED -> 9;
+            case ACTION_MISSING -> 10;
+            case RESOURCE_MISSING -> 11;
+            case RESOURCE_WILDCARD -> 12;
+            case MALFORMED_DOCUMENT -> 13;
+            case UNEXPECTED_ERROR -> 14;
+        };
+    }
+
+    static ValidationRule rule(byte code) throws IOException {
+        return switch (code) {
+            case 0 -> ValidationRule.ROLE_POLICY_MISSING;
+            case 1 -> ValidationRule.POLICY_NAME_MISSING;
+            case 2 -> ValidationRule.POLICY_NAME_FORMAT;
+            case 3 -> ValidationRule.POLICY_NAME_LENGTH;
+            case 4 -> ValidationRule.POLICY_DOCUMENT_MISSING;
+            case 5 -> ValidationRule.VERSION_MISSING;
+            case 6 -> ValidationRule.VERSION_UNSUPPORTED;
+            case 7 -> ValidationRule.STATEMENT_MISSING;
+            case 8 -> ValidationRule.EFFECT_INVALID;
+            case 9 -> ValidationRule.PRINCIPAL_NOT_ALLOWED;
+            case 10 -> ValidationRule.ACTION_MISSING;
+            case 11 -> ValidationRule.RESOURCE_MISSING;
+            case 12 -> ValidationRule.RESOURCE_WILDCARD;
+            case 13 -> ValidationRule.MALFORMED_DOCUMENT;
+            case 14 -> ValidationRule.UNEXPECTED_ERROR;
+            default -> throw new IOException("Unknown rule code " + code);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.remitly.server;
+
+import com.remitly.exception.ValidationRule;
+
+public record ValidationResponse(
+        int requestId,
+        boolean isValid,
+        ValidationRule rule,
+        int statementIndex,
+        String message
+) {
+}
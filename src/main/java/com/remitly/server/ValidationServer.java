@@ -0,0 +1,293 @@
+package com.remitly.server;
+
+import com.remitly.exception.ValidationRule;
+import com.remitly.json.JSONParser;
+import com.remitly.json.ParserLimits;
+import com.remitly.validator.RolePolicyValidator;
+import com.remitly.validator.ValidationResult;
+import com.remitly.validator.WildcardPreScan;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// a single selector thread does all of the socket I/O while the validation itself runs on a worker pool;
+// responses go out as soon as they are ready, so clients may pipeline requests and match them by id
+public class ValidationServer implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(ValidationServer.class.getName());
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    static final int MAX_IN_FLIGHT = 1024;
+    private static final int MAX_GATHERED_WRITES = 64;
+
+    private static class Connection {
+        private final SocketChannel channel;
+        private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private boolean isInputClosed;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService workers;
+    private final ParserLimits limits;
+    private final Queue<SelectionKey> pendingKeys = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedResponses = new AtomicInteger();
+    private final Thread selectorThread;
+    private volatile boolean isClosed;
+
+    public ValidationServer(InetSocketAddress address, int workerCount) throws IOException {
+        this(address, workerCount, ParserLimits.DEFAULT);
+    }
+
+    public ValidationServer(InetSocketAddress address, int workerCount, ParserLimits limits) throws IOException {
+        this.limits = limits;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "validation-server-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.selectorThread = new Thread(this::run, "validation-server-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    public int port() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    // responses held in memory across all connections, waiting to be written
+    int queuedResponses() {
+        return queuedResponses.get();
+    }
+
+    public void awaitTermination() throws InterruptedException {
+        selectorThread.join();
+    }
+
+    // the selector thread closes every connection on its way out, so connected clients see the end of the stream
+    @Override
+    public void close() throws IOException {
+        isClosed = true;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!isClosed) {
+                selector.select();
+                updateInterests();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) {
+                                read(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(key);
+                            }
+                        }
+                    } catch (IOException | CancelledKeyException ex) {
+                        closeConnection(key);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Validation server stopped", ex);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            closeConnection(key);
+        }
+        try {
+            selector.close();
+        } catch (IOException ex) {
+            logger.log(Level.FINE, "Could not close selector", ex);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        if (connection.channel.read(connection.readBuffer) < 0) {
+            connection.isInputClosed = true;
+        }
+
+        dispatch(key, connection);
+    }
+
+    // a request stays in flight until its response has been written out completely, so a client that keeps
+    // sending without reading stops being read from once MAX_IN_FLIGHT responses are queued for it; frames that
+    // are already buffered wait there and are dispatched as soon as responses drain; a client that has shut down
+    // its output still gets every response, the connection is closed once the last one has been written
+    private void dispatch(SelectionKey key, Connection connection) {
+        ByteBuffer buffer = connection.readBuffer.flip();
+        boolean isFrameIncomplete = false;
+        while (connection.inFlight.get() < MAX_IN_FLIGHT) {
+            if (buffer.remaining() < ValidationProtocol.LENGTH_BYTES) {
+                isFrameIncomplete = true;
+                break;
+            }
+
+            int length = buffer.getInt(buffer.position());
+            if (length < ValidationProtocol.REQUEST_HEADER_BYTES || length > ValidationProtocol.MAX_FRAME_LENGTH) {
+                closeConnection(key);
+                return;
+            }
+            if (buffer.remaining() < ValidationProtocol.LENGTH_BYTES + length) {
+                isFrameIncomplete = true;
+                break;
+            }
+
+            buffer.getInt();
+            int requestId = buffer.getInt();
+            boolean isRobust = (buffer.get() & ValidationProtocol.FLAG_ROBUST) != 0;
+            byte[] json = new byte[length - ValidationProtocol.REQUEST_HEADER_BYTES];
+            buffer.get(json);
+
+            connection.inFlight.incrementAndGet();
+            workers.execute(() -> respond(key, connection, requestId, isRobust, json));
+        }
+        buffer.compact();
+
+        // a frame larger than the buffer needs a bigger one to ever be completed
+        if (isFrameIncomplete && !buffer.hasRemaining()) {
+            connection.readBuffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+        }
+        if (connection.isInputClosed) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            if (connection.inFlight.get() == 0) {
+                closeConnection(key);
+            }
+        } else if (connection.inFlight.get() < MAX_IN_FLIGHT) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+        } else {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+        }
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+
+        ByteBuffer[] buffers = new ByteBuffer[MAX_GATHERED_WRITES];
+        int count = 0;
+        for (ByteBuffer buffer : connection.outbound) {
+            if (count == buffers.length) {
+                break;
+            }
+            buffers[count++] = buffer;
+        }
+        connection.channel.write(buffers, 0, count);
+
+        int written = 0;
+        while (!connection.outbound.isEmpty() && !connection.outbound.peek().hasRemaining()) {
+            connection.outbound.poll();
+            written++;
+        }
+        if (connection.outbound.isEmpty()) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+
+        boolean isPaused = (key.interestOps() & SelectionKey.OP_READ) == 0;
+        queuedResponses.addAndGet(-written);
+        if (connection.inFlight.addAndGet(-written) < MAX_IN_FLIGHT && isPaused) {
+            dispatch(key, connection);
+        }
+    }
+
+    // interest operations are only changed on the selector thread, workers queue the key and wake it up
+    private void updateInterests() {
+        SelectionKey key;
+        while ((key = pendingKeys.poll()) != null) {
+            if (!key.isValid()) {
+                continue;
+            }
+
+            Connection connection = (Connection) key.attachment();
+            if (!connection.outbound.isEmpty()) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    private void respond(SelectionKey key, Connection connection, int requestId, boolean isRobust, byte[] json) {
+        connection.outbound.add(ValidationProtocol.encodeResponse(requestId, validate(json, isRobust)));
+        queuedResponses.incrementAndGet();
+        pendingKeys.add(key);
+        selector.wakeup();
+    }
+
+    private ValidationResult validate(byte[] json, boolean isRobust) {
+        try {
+            if (!isRobust && WildcardPreScan.isTriviallyValid(json, limits)) {
+                return ValidationResult.valid(0, null);
+            }
+
+            return RolePolicyValidator.check(0, JSONParser.parseDocument(json, limits), isRobust);
+        } catch (IOException ex) {
+            return ValidationResult.malformed(0, ex.getMessage(), -1, -1, -1);
+        } catch (RuntimeException ex) {
+            return ValidationResult.invalid(0, null, ValidationRule.UNEXPECTED_ERROR, String.valueOf(ex), -1);
+        }
+    }
+
+    private void closeConnection(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ex) {
+            logger.log(Level.FINE, "Could not close connection", ex);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.remitly.validator;
+
+import com.remitly.model.Statement;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// splits a statement list into ranges checked on the common fork-join pool and records the lowest index whose check
+// fails; ranges past an already known failure stop early, so every statement before the final minimum is checked
+class ParallelStatementCheck extends RecursiveAction {
+
+    static final int LEAF_SIZE = 128;
+
+    private final List<Statement> statements;
+    private final int from;
+    private final int to;
+    private final AtomicInteger firstFailure;
+
+    private ParallelStatementCheck(List<Statement> statements, int from, int to, AtomicInteger firstFailure) {
+        this.statements = statements;
+        this.from = from;
+        this.to = to;
+        this.firstFailure = firstFailure;
+    }
+
+    // index of the first statement that fails its check, or -1 when all of them pass
+    static int firstFailure(List<Statement> statements) {
+        AtomicInteger firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+        ForkJoinPool.commonPool().invoke(new ParallelStatementCheck(statements, 0, statements.size(), firstFailure));
+
+        return firstFailure.get() == Integer.MAX_VALUE ? -1 : firstFailure.get();
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= LEAF_SIZE) {
+            for (int i = from; i < to && i < firstFailure.get(); i++) {
+                boolean isFailed;
+                try {
+                    isFailed = !RolePolicyValidator.statementCheck(statements.get(i), i);
+                } catch (RuntimeException ex) {
+                    isFailed = true;
+                }
+
+                if (isFailed) {
+                    firstFailure.accumulateAndGet(i, Math::min);
+                    return;
+                }
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        invokeAll(
+                new ParallelStatementCheck(statements, from, middle, firstFailure),
+                new ParallelStatementCheck(statements, middle, to, firstFailure)
+        );
+    }
+}
@@ -1,6 +1,7 @@
 package com.remitly.validator;
 
 import com.remitly.exception.RolePolicyValidationException;
+import com.remitly.exception.ValidationRule;
 import com.remitly.model.PolicyDocument;
 import com.remitly.model.RolePolicy;
 import com.remitly.model.Statement;
@@ -9,13 +10,21 @@ import java.util.ArrayList;
 
 public class RolePolicyValidator {
 
+    // statement lists of at least this size are checked in parallel
+    static final int PARALLEL_STATEMENT_THRESHOLD = 512;
+
     private RolePolicyValidator() {}
 
     public static boolean validate(RolePolicy rolePolicy, boolean isRobust) {
+        return validate(rolePolicy, isRobust, PARALLEL_STATEMENT_THRESHOLD);
+    }
+
+    // Integer.MAX_VALUE as the threshold checks every statement list sequentially
+    static boolean validate(RolePolicy rolePolicy, boolean isRobust, int parallelStatementThreshold) {
         if (isRobust) {
             return (rolePolicyCheck(rolePolicy)
                  && policyNameCheck(rolePolicy.policyName())
-                 && policyDocumentCheck(rolePolicy.policyDocument())
+                 && policyDocumentCheck(rolePolicy.policyDocument(), parallelStatementThreshold)
             );
         } else {
             if (rolePolicy == null
@@ -25,9 +34,14 @@ public class RolePolicyValidator {
                 return false;
             }
 
-            for (Statement statement : rolePolicy.policyDocument().statement()) {
-                if (!statementResourceCheck(statement.resource())) {
-                    return false;
+            ArrayList<Statement> statements = rolePolicy.policyDocument().statement();
+            for (int i = 0; i < statements.size(); i++) {
+                try {
+                    if (!statementResourceCheck(statements.get(i).resource())) {
+                        return false;
+                    }
+                } catch (RolePolicyValidationException ex) {
+                    throw ex.atStatement(i);
                 }
             }
 
@@ -35,9 +49,44 @@ public class RolePolicyValidator {
         }
     }
 
+    public static ValidationResult check(long policyIndex, RolePolicy rolePolicy, boolean isRobust) {
+        return check(policyIndex, rolePolicy, isRobust, PARALLEL_STATEMENT_THRESHOLD);
+    }
+
+    static ValidationResult check(long policyIndex, RolePolicy rolePolicy, boolean isRobust, int parallelStatementThreshold) {
+        String policyName = rolePolicy != null ? rolePolicy.policyName() : null;
+
+        try {
+            if (validate(rolePolicy, isRobust, parallelStatementThreshold)) {
+                return ValidationResult.valid(policyIndex, policyName);
+            }
+        } catch (RolePolicyValidationException ex) {
+            return ValidationResult.invalid(policyIndex, rolePolicy, ex.getRule(), ex.getMessage(), ex.getStatementIndex());
+        } catch (RuntimeException ex) {
+            return ValidationResult.invalid(policyIndex, rolePolicy, ValidationRule.UNEXPECTED_ERROR, String.valueOf(ex), -1);
+        }
+
+        // only the regular mode null checks and the resource check report failure without an exception
+        if (rolePolicy == null) {
+            return ValidationResult.invalid(policyIndex, null, ValidationRule.ROLE_POLICY_MISSING, "Role policy is null", -1);
+        } else if (rolePolicy.policyDocument() == null) {
+            return ValidationResult.invalid(policyIndex, rolePolicy, ValidationRule.POLICY_DOCUMENT_MISSING, "Policy document not specified", -1);
+        } else if (rolePolicy.policyDocument().statement() == null) {
+            return ValidationResult.invalid(policyIndex, rolePolicy, ValidationRule.STATEMENT_MISSING, "Statement field not specified", -1);
+        }
+
+        ArrayList<Statement> statements = rolePolicy.policyDocument().statement();
+        int statementIndex = 0;
+        while (statementIndex < statements.size() - 1 && statementResourceCheck(statements.get(statementIndex).resource())) {
+            statementIndex++;
+        }
+
+        return ValidationResult.invalid(policyIndex, rolePolicy, ValidationRule.RESOURCE_WILDCARD, "Resource cannot be a wildcard", statementIndex);
+    }
+
     protected static boolean rolePolicyCheck(RolePolicy rolePolicy) {
         if (rolePolicy == null) {
-            throw new RolePolicyValidationException("Role policy is null");
+            throw new RolePolicyValidationException(ValidationRule.ROLE_POLICY_MISSING, "Role policy is null");
         }
 
         return true;
@@ -45,46 +94,57 @@ public class RolePolicyValidator {
 
     protected static boolean policyNameCheck(String policyName) {
         if (policyName == null) {
-            throw new RolePolicyValidationException("Role policy name not specified");
+            throw new RolePolicyValidationException(ValidationRule.POLICY_NAME_MISSING, "Role policy name not specified");
         } else if (!policyName.matches("[\\w+=,.@-]+")) {
-            throw new RolePolicyValidationException("Role policy name is of wrong format");
+            throw new RolePolicyValidationException(ValidationRule.POLICY_NAME_FORMAT, "Role policy name is of wrong format");
         } else if (policyName.isEmpty()) {
-            throw new RolePolicyValidationException("Role policy name is too short (minimum length is 1)");
+            throw new RolePolicyValidationException(ValidationRule.POLICY_NAME_LENGTH, "Role policy name is too short (minimum length is 1)");
         } else if (policyName.length() > 128) {
-            throw new RolePolicyValidationException("Role policy name is too long (maximum length is 128)");
+            throw new RolePolicyValidationException(ValidationRule.POLICY_NAME_LENGTH, "Role policy name is too long (maximum length is 128)");
         }
 
         return true;
     }
 
     protected static boolean policyDocumentCheck(PolicyDocument policyDocument) {
+        return policyDocumentCheck(policyDocument, PARALLEL_STATEMENT_THRESHOLD);
+    }
+
+    private static boolean policyDocumentCheck(PolicyDocument policyDocument, int parallelStatementThreshold) {
         return (policyVersionCheck(policyDocument.version())
-             && policyStatementCheck(policyDocument.statement())
+             && policyStatementCheck(policyDocument.statement(), parallelStatementThreshold)
         );
     }
 
     protected static boolean policyVersionCheck(String version) {
         if (version == null) {
-            throw new RolePolicyValidationException("Policy document version not specified");
+            throw new RolePolicyValidationException(ValidationRule.VERSION_MISSING, "Policy document version not specified");
         }
         if (!version.equals("2012-10-17") && !version.equals("2008-10-17")) {
-            throw new RolePolicyValidationException("Unsupported Version field value");
+            throw new RolePolicyValidationException(ValidationRule.VERSION_UNSUPPORTED, "Unsupported Version field value");
         }
 
         return true;
     }
 
     protected static boolean policyStatementCheck(ArrayList<Statement> statements) {
+        return policyStatementCheck(statements, PARALLEL_STATEMENT_THRESHOLD);
+    }
+
+    private static boolean policyStatementCheck(ArrayList<Statement> statements, int parallelStatementThreshold) {
         if (statements == null) {
-            throw new RolePolicyValidationException("Statement field not specified");
+            throw new RolePolicyValidationException(ValidationRule.STATEMENT_MISSING, "Statement field not specified");
         }
 
-        for (Statement statement : statements) {
-            if (!statementEffectCheck(statement.effect())
-             || !statementPrincipalCheck(statement.principal())
-             || !statementActionCheck(statement.action())
-             || !statementResourceCheck(statement.resource()))
-            {
+        // the failing statement is checked again on this thread, which returns or throws exactly as the sequential
+        // loop would have
+        if (statements.size() >= parallelStatementThreshold) {
+            int firstFailure = ParallelStatementCheck.firstFailure(statements);
+            return firstFailure < 0 || statementCheck(statements.get(firstFailure), firstFailure);
+        }
+
+        for (int i = 0; i < statements.size(); i++) {
+            if (!statementCheck(statements.get(i), i)) {
                 return false;
             }
         }
@@ -92,9 +152,21 @@ public class RolePolicyValidator {
         return true;
     }
 
+    protected static boolean statementCheck(Statement statement, int index) {
+        try {
+            return (statementEffectCheck(statement.effect())
+                 && statementPrincipalCheck(statement.principal())
+                 && statementActionCheck(statement.action())
+                 && statementResourceCheck(statement.resource())
+            );
+        } catch (RolePolicyValidationException ex) {
+            throw ex.atStatement(index);
+        }
+    }
+
     protected static boolean statementEffectCheck(String effect) {
         if (!effect.equals("Allow") && !effect.equals("Deny")) {
-            throw new RolePolicyValidationException("Received 'Effect' field value is not allowed");
+            throw new RolePolicyValidationException(ValidationRule.EFFECT_INVALID, "Received 'Effect' field value is not allowed");
         }
 
         return true;
@@ -102,7 +174,7 @@ public class RolePolicyValidator {
 
     protected static boolean statementPrincipalCheck(Object principal) {
         if (principal != null) {
-            throw new RolePolicyValidationException("Principal cannot be specified in a attached policy document");
+            throw new RolePolicyValidationException(ValidationRule.PRINCIPAL_NOT_ALLOWED, "Principal cannot be specified in a attached policy document");
         }
 
         return true;
@@ -110,7 +182,7 @@ public class RolePolicyValidator {
 
     protected static boolean statementActionCheck(ArrayList<String> actions) {
         if (actions == null || actions.isEmpty()) {
-            throw new RolePolicyValidationException("At least one action has to be specified");
+            throw new RolePolicyValidationException(ValidationRule.ACTION_MISSING, "At least one action has to be specified");
         }
 
         return true;
@@ -118,7 +190,7 @@ public class RolePolicyValidator {
 
     protected static boolean statementResourceCheck(ArrayList<String> resources) {
         if (resources == null) {
-            throw new RolePolicyValidationException("Resource field not specified");
+            throw new RolePolicyValidationException(ValidationRule.RESOURCE_MISSING, "Resource field not specified");
         }
 
         for (String resource : resources) {
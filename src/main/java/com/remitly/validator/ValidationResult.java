@@ -0,0 +1,52 @@
+package com.remitly.validator;
+
+import com.remitly.exception.ValidationRule;
+import com.remitly.model.RolePolicy;
+import com.remitly.model.Statement;
+
+import java.util.ArrayList;
+
+// offset is a byte offset into the input; offset, line and column are -1 when not known
+public record ValidationResult(
+        long policyIndex,
+        String policyName,
+        boolean isValid,
+        ValidationRule rule,
+        String message,
+        int statementIndex,
+        String sid,
+        long offset,
+        int line,
+        int column
+) {
+
+    public static ValidationResult valid(long policyIndex, String policyName) {
+        return new ValidationResult(policyIndex, policyName, true, null, null, -1, null, -1, -1, -1);
+    }
+
+    public static ValidationResult invalid(long policyIndex, RolePolicy rolePolicy, ValidationRule rule, String message, int statementIndex) {
+        String policyName = rolePolicy != null ? rolePolicy.policyName() : null;
+        return new ValidationResult(policyIndex, policyName, false, rule, message, statementIndex, sid(rolePolicy, statementIndex), -1, -1, -1);
+    }
+
+    public static ValidationResult malformed(long policyIndex, String message, long offset, int line, int column) {
+        return new ValidationResult(policyIndex, null, false, ValidationRule.MALFORMED_DOCUMENT, message, -1, null, offset, line, column);
+    }
+
+    public ValidationResult at(long offset, int line, int column) {
+        return new ValidationResult(policyIndex, policyName, isValid, rule, message, statementIndex, sid, offset, line, column);
+    }
+
+    private static String sid(RolePolicy rolePolicy, int statementIndex) {
+        if (statementIndex < 0 || rolePolicy == null || rolePolicy.policyDocument() == null) {
+            return null;
+        }
+
+        ArrayList<Statement> statements = rolePolicy.policyDocument().statement();
+        if (statements == null || statementIndex >= statements.size() || statements.get(statementIndex) == null) {
+            return null;
+        }
+
+        return statements.get(statementIndex).sid();
+    }
+}
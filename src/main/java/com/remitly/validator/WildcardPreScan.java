@@ -0,0 +1,200 @@
+package com.remitly.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.remitly.json.JSONParser;
+import com.remitly.json.ParserLimits;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+public class WildcardPreScan {
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long ASTERISKS = '*' * ONES;
+    private static final long BACKSLASHES = '\\' * ONES;
+
+    private WildcardPreScan() {}
+
+    public static boolean validate(byte[] json, boolean isRobust) throws IOException {
+        return validate(json, isRobust, ParserLimits.DEFAULT);
+    }
+
+    public static boolean validate(byte[] json, boolean isRobust, ParserLimits limits) throws IOException {
+        if (!isRobust && isTriviallyValid(json, limits)) {
+            return true;
+        }
+
+        return RolePolicyValidator.validate(JSONParser.parseDocument(json, limits), isRobust);
+    }
+
+    // in regular mode a document without any "*" string cannot fail the resource check, so as long as it also
+    // has the plain shape the regular mode expects it is accepted without binding it to the model
+    public static boolean isTriviallyValid(byte[] json, ParserLimits limits) throws IOException {
+        return isUtf8(json) && !mayContainWildcard(json) && hasRegularShape(json, limits);
+    }
+
+    // the byte scan only understands UTF-8, while the parser also detects UTF-16 and UTF-32 from a byte order mark
+    // or from NUL bytes among the first four, so any input that could be taken for either is left to the full parse
+    static boolean isUtf8(byte[] json) {
+        if (json.length >= 2 && ((json[0] == (byte) 0xFE && json[1] == (byte) 0xFF)
+                              || (json[0] == (byte) 0xFF && json[1] == (byte) 0xFE))) {
+            return false;
+        }
+
+        for (int i = 0; i < Math.min(json.length, 4); i++) {
+            if (json[i] == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // expects UTF-8 input; a string equal to "*" is spelled either with a literal asterisk or with its 002a/002A unicode escape, so only
+    // '*' and backslash bytes are of interest; they are located eight bytes at a time and then matched exactly
+    public static boolean mayContainWildcard(byte[] json) {
+        int i = 0;
+        for (int end = json.length - Long.BYTES; i <= end; i += Long.BYTES) {
+            long word = (long) LONG_VIEW.get(json, i);
+            if ((hasByte(word, ASTERISKS) | hasByte(word, BACKSLASHES)) != 0) {
+                for (int j = i; j < i + Long.BYTES; j++) {
+                    if (isWildcardAt(json, j)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        for (; i < json.length; i++) {
+            if (isWildcardAt(json, i)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static long hasByte(long word, long pattern) {
+        long matched = word ^ pattern;
+        return (matched - ONES) & ~matched & HIGHS;
+    }
+
+    private static boolean isWildcardAt(byte[] json, int i) {
+        if (json[i] == '*') {
+            return i > 0 && i + 1 < json.length && json[i - 1] == '"' && json[i + 1] == '"';
+        } else if (json[i] == '\\') {
+            return i > 0 && i + 6 < json.length
+                    && json[i - 1] == '"' && json[i + 1] == 'u' && json[i + 2] == '0' && json[i + 3] == '0'
+                    && json[i + 4] == '2' && (json[i + 5] == 'a' || json[i + 5] == 'A') && json[i + 6] == '"';
+        }
+
+        return false;
+    }
+
+    // anything outside of the expected shape (unknown fields, nulls, mistyped values, malformed input) is left
+    // to the full parse, so that the outcome and the reported error stay exactly the same as without the pre-scan
+    private static boolean hasRegularShape(byte[] json, ParserLimits limits) throws IOException {
+        try (JsonParser parser = JSONParser.createParser(json, limits)) {
+            return parser.nextToken() == JsonToken.START_OBJECT && rolePolicyShapeCheck(parser);
+        } catch (JsonProcessingException ex) {
+            return false;
+        }
+    }
+
+    private static boolean rolePolicyShapeCheck(JsonParser parser) throws IOException {
+        boolean hasPolicyDocument = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (field.equals("PolicyName") && value.isScalarValue()) {
+                continue;
+            } else if (field.equals("PolicyDocument") && value == JsonToken.START_OBJECT && policyDocumentShapeCheck(parser)) {
+                hasPolicyDocument = true;
+            } else {
+                return false;
+            }
+        }
+
+        return hasPolicyDocument;
+    }
+
+    private static boolean policyDocumentShapeCheck(JsonParser parser) throws IOException {
+        boolean hasStatement = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (field.equals("Version") && value.isScalarValue()) {
+                continue;
+            } else if (field.equals("Statement") && value == JsonToken.START_ARRAY && statementsShapeCheck(parser)) {
+                hasStatement = true;
+            } else {
+                return false;
+            }
+        }
+
+        return hasStatement;
+    }
+
+    private static boolean statementsShapeCheck(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+            if (!statementShapeCheck(parser)) {
+                return false;
+            }
+        }
+
+        return token == JsonToken.END_ARRAY;
+    }
+
+    private static boolean statementShapeCheck(JsonParser parser) throws IOException {
+        boolean hasResource = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "Sid", "Effect" -> {
+                    if (!value.isScalarValue()) {
+                        return false;
+                    }
+                }
+                case "Principal" -> parser.skipChildren();
+                case "Action" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    } else if (value != JsonToken.VALUE_STRING && value != JsonToken.VALUE_NULL) {
+                        return false;
+                    }
+                }
+                case "Resource" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while ((value = parser.nextToken()) == JsonToken.VALUE_STRING) {}
+                        if (value != JsonToken.END_ARRAY) {
+                            return false;
+                        }
+                    } else if (value != JsonToken.VALUE_STRING) {
+                        return false;
+                    }
+                    hasResource = true;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+
+        return hasResource;
+    }
+}
@@ -0,0 +1,249 @@
+package com.remitly.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.exception.RolePolicyValidationException;
+import com.remitly.json.JSONParser;
+import com.remitly.validator.RolePolicyValidator;
+import com.remitly.validator.WildcardPreScan;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+// usage: <baseline properties> <output directory> [--update-baseline]
+//
+// runs a fixed workload, robust and regular validation over generated role policies, a few of which break a rule
+// so that the exception path is exercised too, and compares the allocated bytes per policy and the time relative to a
+// reference parse with the baseline; the allocation phase is recorded with JFR and the recording is kept next to a
+// plain text summary
+public class AllocationRegressionCheck {
+
+    private static final int DOCUMENT_COUNT = 5_000;
+    private static final int INVALID_EVERY = 50;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int SUMMARY_SIZE = 15;
+
+    private static final ObjectMapper referenceMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Expected the baseline file and the output directory");
+        }
+
+        Path baselinePath = Path.of(args[0]);
+        Path outputDirectory = Files.createDirectories(Path.of(args[1]));
+        boolean isUpdate = args.length > 2 && args[2].equals("--update-baseline");
+
+        byte[][] documents = generateWorkload();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runWorkload(documents);
+            runReference(documents);
+        }
+
+        // wall-clock time moves by a factor of two between identical runs on the same machine, so time is gated as
+        // the ratio to a plain tree parse of the same documents, interleaved round by round and taken as the median
+        double[] ratios = new double[MEASURED_ROUNDS];
+        long[] roundNanos = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            runReference(documents);
+            long referenceNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            runWorkload(documents);
+            roundNanos[i] = System.nanoTime() - start;
+            ratios[i] = (double) roundNanos[i] / referenceNanos;
+        }
+
+        Path recordingPath = outputDirectory.resolve("workload.jfr");
+        long allocatedBytes;
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ObjectAllocationSample").with("throttle", "1000/s");
+            recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(10));
+            recording.start();
+
+            long startBytes = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                runWorkload(documents);
+            }
+            allocatedBytes = threads.getCurrentThreadAllocatedBytes() - startBytes;
+
+            recording.stop();
+            recording.dump(recordingPath);
+        }
+
+        // every document is validated once in robust and once in regular mode
+        long policies = 2L * DOCUMENT_COUNT * MEASURED_ROUNDS;
+        double bytesPerPolicy = (double) allocatedBytes / policies;
+        double nsPerPolicy = (double) median(roundNanos) / (2L * DOCUMENT_COUNT);
+        double timeRatio = median(ratios);
+
+        writeSummary(recordingPath, outputDirectory.resolve("jfr-summary.txt"), bytesPerPolicy, nsPerPolicy, timeRatio);
+
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(baselinePath, StandardCharsets.UTF_8)) {
+            baseline.load(reader);
+        }
+
+        if (isUpdate) {
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put("bytesPerPolicy", String.format(Locale.ROOT, "%.0f", bytesPerPolicy));
+            values.put("timeRatio", String.format(Locale.ROOT, "%.3f", timeRatio));
+            updateBaseline(baselinePath, values);
+            System.out.printf("Baseline updated: %.0f bytes/policy, time ratio %.3f%n", bytesPerPolicy, timeRatio);
+            return;
+        }
+
+        // ns/policy depends on the machine and is reported only
+        System.out.printf("%-13s %10.3f%n", "ns/policy", nsPerPolicy);
+        boolean bytesOk = compare("bytes/policy", bytesPerPolicy, baseline, "bytesPerPolicy", "bytesTolerance");
+        boolean timeOk = compare("time ratio", timeRatio, baseline, "timeRatio", "timeRatioTolerance");
+        if (!bytesOk || !timeOk) {
+            System.err.println("Performance regressed past the baseline tolerance, see " + outputDirectory);
+            System.exit(1);
+        }
+    }
+
+    // only the measured values are replaced, comments, tolerances and the order of the lines stay as they are, so
+    // that an update shows up as a diff of just those lines
+    private static void updateBaseline(Path baselinePath, Map<String, String> values) throws IOException {
+        List<String> lines = new ArrayList<>();
+        Map<String, String> missing = new LinkedHashMap<>(values);
+        for (String line : Files.readAllLines(baselinePath, StandardCharsets.UTF_8)) {
+            int separator = line.indexOf('=');
+            String key = separator > 0 && !line.startsWith("#") ? line.substring(0, separator).trim() : null;
+            if (key != null && missing.containsKey(key)) {
+                line = key + "=" + missing.remove(key);
+            }
+            lines.add(line);
+        }
+        missing.forEach((key, value) -> lines.add(key + "=" + value));
+
+        Files.write(baselinePath, lines, StandardCharsets.UTF_8);
+    }
+
+    private static boolean compare(String name, double measured, Properties baseline, String valueKey, String toleranceKey) {
+        double expected = Double.parseDouble(baseline.getProperty(valueKey));
+        double tolerance = Double.parseDouble(baseline.getProperty(toleranceKey));
+        double limit = expected * (1 + tolerance);
+        boolean isOk = measured <= limit;
+
+        System.out.printf("%-13s %10.3f (baseline %.3f, limit %.3f) %s%n", name, measured, expected, limit, isOk ? "OK" : "REGRESSED");
+        return isOk;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static byte[][] generateWorkload() {
+        byte[][] documents = WildcardPreScanBenchmark.generateDocuments(DOCUMENT_COUNT, 0.01);
+        for (int i = INVALID_EVERY - 1; i < documents.length; i += INVALID_EVERY) {
+            documents[i] = new String(documents[i], StandardCharsets.UTF_8)
+                    .replace("\"Effect\":\"Allow\"", "\"Effect\":\"Permit\"")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+
+        return documents;
+    }
+
+    private static int runWorkload(byte[][] documents) throws IOException {
+        int valid = 0;
+        for (byte[] document : documents) {
+            try {
+                if (RolePolicyValidator.validate(JSONParser.parseDocument(document), true)) {
+                    valid++;
+                }
+            } catch (RolePolicyValidationException ex) {
+                // counted as invalid
+            }
+            if (WildcardPreScan.validate(document, false)) {
+                valid++;
+            }
+        }
+
+        return valid;
+    }
+
+    private static int runReference(byte[][] documents) throws IOException {
+        int nodes = 0;
+        for (byte[] document : documents) {
+            nodes += referenceMapper.readTree(document).size();
+        }
+
+        return nodes;
+    }
+
+    private static void writeSummary(Path recordingPath, Path summaryPath, double bytesPerPolicy, double nsPerPolicy, double timeRatio) throws IOException {
+        Map<String, Long> allocationsByClass = new HashMap<>();
+        Map<String, Long> allocationsBySite = new HashMap<>();
+        Map<String, Long> samplesByMethod = new HashMap<>();
+
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordingPath)) {
+            String eventName = event.getEventType().getName();
+            if (eventName.equals("jdk.ObjectAllocationSample")) {
+                long weight = event.getLong("weight");
+                allocationsByClass.merge(event.getClass("objectClass").getName(), weight, Long::sum);
+                allocationsBySite.merge(topFrame(event.getStackTrace()), weight, Long::sum);
+            } else if (eventName.equals("jdk.ExecutionSample")) {
+                samplesByMethod.merge(topFrame(event.getStackTrace()), 1L, Long::sum);
+            }
+        }
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(summaryPath, StandardCharsets.UTF_8))) {
+            out.printf("bytes/policy: %.0f%n", bytesPerPolicy);
+            out.printf("ns/policy:    %.0f%n", nsPerPolicy);
+            out.printf("time ratio:   %.3f%n", timeRatio);
+            printTop(out, "Allocated bytes by class (sampled)", allocationsByClass);
+            printTop(out, "Allocated bytes by site (sampled)", allocationsBySite);
+            printTop(out, "CPU samples by method", samplesByMethod);
+        }
+    }
+
+    private static void printTop(PrintWriter out, String title, Map<String, Long> counts) {
+        out.println();
+        out.println(title);
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(SUMMARY_SIZE)
+                .forEach(entry -> out.printf("%14d  %s%n", entry.getValue(), entry.getKey()));
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<unknown>";
+        }
+
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,120 @@
+package com.remitly.perf;
+
+import com.remitly.server.ValidationClient;
+import com.remitly.server.ValidationServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// usage: [host:port] [connections] [requests per connection] [pipelining window]
+// without an address, or with an empty one, a server is started on a local ephemeral port for the duration of the run
+public class ValidationLoadGenerator {
+
+    private static final int DOCUMENT_COUNT = 10_000;
+    private static final int BATCH_SIZE = 32;
+
+    public static void main(String[] args) throws Exception {
+        String address = args.length > 0 && !args[0].isEmpty() ? args[0] : null;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+        int window = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+
+        byte[][] documents = WildcardPreScanBenchmark.generateDocuments(DOCUMENT_COUNT, 0.01);
+
+        ValidationServer server = null;
+        String host;
+        int port;
+        if (address == null) {
+            server = new ValidationServer(new InetSocketAddress("127.0.0.1", 0), Runtime.getRuntime().availableProcessors());
+            host = "127.0.0.1";
+            port = server.port();
+        } else {
+            host = address.substring(0, address.lastIndexOf(':'));
+            port = Integer.parseInt(address.substring(address.lastIndexOf(':') + 1));
+        }
+
+        try {
+            // one short run to warm up both ends before measuring
+            run(host, port, documents, connections, Math.min(requests, 10_000), window);
+
+            long start = System.nanoTime();
+            long[] latencies = run(host, port, documents, connections, requests, window);
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            System.out.printf("Requests:    %d over %d connections, window %d%n", latencies.length, connections, window);
+            System.out.printf("Throughput:  %.0f requests/s%n", latencies.length * 1e9 / elapsed);
+            System.out.printf("Latency p50: %.1f us%n", percentile(latencies, 0.50) / 1e3);
+            System.out.printf("Latency p99: %.1f us%n", percentile(latencies, 0.99) / 1e3);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static long[] run(String host, int port, byte[][] documents, int connections, int requests, int window) throws Exception {
+        long[] latencies = new long[connections * requests];
+        AtomicLong valid = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        List<Exception> failures = new ArrayList<>();
+
+        for (int c = 0; c < connections; c++) {
+            int offset = c * requests;
+            Thread thread = new Thread(() -> {
+                try (ValidationClient client = new ValidationClient(host, port)) {
+                    Semaphore inFlight = new Semaphore(window);
+                    List<CompletableFuture<?>> futures = new ArrayList<>(requests);
+
+                    for (int i = 0; i < requests; i++) {
+                        if (!inFlight.tryAcquire()) {
+                            client.flush();
+                            inFlight.acquire();
+                        }
+
+                        int index = offset + i;
+                        long submitted = System.nanoTime();
+                        futures.add(client.submit(documents[index % documents.length], false).thenAccept(response -> {
+                            latencies[index] = System.nanoTime() - submitted;
+                            if (response.isValid()) {
+                                valid.incrementAndGet();
+                            }
+                            inFlight.release();
+                        }));
+                        if (i % BATCH_SIZE == BATCH_SIZE - 1) {
+                            client.flush();
+                        }
+                    }
+                    client.flush();
+
+                    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+                } catch (IOException | InterruptedException ex) {
+                    synchronized (failures) {
+                        failures.add(ex);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!failures.isEmpty()) {
+            throw failures.get(0);
+        }
+
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+}
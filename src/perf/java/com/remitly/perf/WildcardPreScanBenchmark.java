@@ -0,0 +1,97 @@
+package com.remitly.perf;
+
+import com.remitly.json.JSONParser;
+import com.remitly.validator.RolePolicyValidator;
+import com.remitly.validator.WildcardPreScan;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class WildcardPreScanBenchmark {
+
+    private static final int DOCUMENT_COUNT = 10_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) throws IOException {
+        byte[][] documents = generateDocuments(DOCUMENT_COUNT, 0.01);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runParserPath(documents);
+            runPreScanPath(documents);
+        }
+
+        long parserNanos = 0;
+        long preScanNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            int parserValid = runParserPath(documents);
+            parserNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int preScanValid = runPreScanPath(documents);
+            preScanNanos += System.nanoTime() - start;
+
+            if (parserValid != preScanValid) {
+                throw new IllegalStateException("Pre-scan disagrees with the parser: " + preScanValid + " != " + parserValid);
+            }
+        }
+
+        long measured = (long) DOCUMENT_COUNT * MEASURED_ROUNDS;
+        System.out.printf("JSONParser path: %8.1f ns/document%n", (double) parserNanos / measured);
+        System.out.printf("Pre-scan path:   %8.1f ns/document%n", (double) preScanNanos / measured);
+        System.out.printf("Speedup:         %8.2fx%n", (double) parserNanos / preScanNanos);
+    }
+
+    private static int runParserPath(byte[][] documents) throws IOException {
+        int valid = 0;
+        for (byte[] document : documents) {
+            if (RolePolicyValidator.validate(JSONParser.parseDocument(document), false)) {
+                valid++;
+            }
+        }
+
+        return valid;
+    }
+
+    private static int runPreScanPath(byte[][] documents) throws IOException {
+        int valid = 0;
+        for (byte[] document : documents) {
+            if (WildcardPreScan.validate(document, false)) {
+                valid++;
+            }
+        }
+
+        return valid;
+    }
+
+    static byte[][] generateDocuments(int count, double wildcardRatio) {
+        Random random = new Random(42);
+        byte[][] documents = new byte[count][];
+
+        for (int i = 0; i < count; i++) {
+            StringBuilder json = new StringBuilder()
+                    .append("{\"PolicyName\":\"policy-").append(i).append("\",")
+                    .append("\"PolicyDocument\":{\"Version\":\"2012-10-17\",\"Statement\":[");
+
+            int statements = 1 + random.nextInt(8);
+            for (int j = 0; j < statements; j++) {
+                if (j > 0) {
+                    json.append(',');
+                }
+                String resource = random.nextDouble() < wildcardRatio
+                        ? "*"
+                        : "arn:aws:s3:::bucket-" + random.nextInt(1000) + "/*";
+                json.append("{\"Sid\":\"Statement").append(j).append("\",")
+                        .append("\"Effect\":\"Allow\",")
+                        .append("\"Action\":[\"s3:GetObject\",\"s3:List*\"],")
+                        .append("\"Resource\":[\"arn:aws:s3:::bucket-").append(i).append("\",\"").append(resource).append("\"]}");
+            }
+
+            documents[i] = json.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        return documents;
+    }
+}
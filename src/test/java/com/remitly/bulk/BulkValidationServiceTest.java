@@ -0,0 +1,194 @@
+package com.remitly.bulk;
+
+import com.remitly.model.PolicyDocument;
+import com.remitly.model.RolePolicy;
+import com.remitly.model.Statement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkValidationServiceTest {
+
+    private final RolePolicy validRolePolicy = rolePolicy("test:resource");
+
+    private final RolePolicy invalidRolePolicy = rolePolicy("*");
+
+    private static RolePolicy rolePolicy(String resource) {
+        ArrayList<String> resources = new ArrayList<>(List.of(resource));
+        ArrayList<Statement> statements = new ArrayList<>(List.of(new Statement(null, "Allow", null, null, resources)));
+
+        return new RolePolicy("root", new PolicyDocument("2012-10-17", statements));
+    }
+
+    @Test
+    public void jobStatsCountResultsTest() throws Exception {
+        // Given
+        ArrayList<RolePolicy> rolePolicies = new ArrayList<>();
+        rolePolicies.addAll(Collections.nCopies(700, validRolePolicy));
+        rolePolicies.addAll(Collections.nCopies(300, invalidRolePolicy));
+
+        // When
+        JobStats stats;
+        try (BulkValidationService service = new BulkValidationService(4, 64)) {
+            stats = service.submit(new ValidationJob("tenant", "job", rolePolicies, false))
+                    .completion()
+                    .get(10, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertEquals(700, stats.validCount());
+        assertEquals(300, stats.invalidCount());
+        assertEquals(0, stats.failedCount());
+        assertFalse(stats.isCancelled());
+    }
+
+    @Test
+    public void listenerReceivesEveryPolicyTest() throws Exception {
+        // Given
+        AtomicLong validated = new AtomicLong();
+        BulkValidationListener listener = new BulkValidationListener() {
+            @Override
+            public void onPolicyValidated(long index, RolePolicy rolePolicy, boolean isValid, RuntimeException exception) {
+                validated.incrementAndGet();
+            }
+        };
+
+        // When
+        try (BulkValidationService service = new BulkValidationService(2, 16)) {
+            service.submit(new ValidationJob("tenant", "job", Collections.nCopies(100, validRolePolicy), false), listener)
+                    .completion()
+                    .get(10, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertEquals(100, validated.get());
+    }
+
+    @Test
+    public void cancelledJobStopsTest() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        BulkValidationListener listener = new BulkValidationListener() {
+            @Override
+            public void onPolicyValidated(long index, RolePolicy rolePolicy, boolean isValid, RuntimeException exception) {
+                started.countDown();
+                try {
+                    cancelled.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        // When
+        JobStats stats;
+        try (BulkValidationService service = new BulkValidationService(1, 16)) {
+            JobHandle job = service.submit(new ValidationJob("tenant", "job", Collections.nCopies(10_000, validRolePolicy), false), listener);
+            started.await();
+            job.cancel();
+            cancelled.countDown();
+            stats = job.completion().get(10, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertTrue(stats.isCancelled());
+        assertTrue(stats.processedCount() < 10_000);
+    }
+
+    @Test
+    public void errorFailsOnlyItsJobTest() throws Exception {
+        // Given
+        BulkValidationListener failingListener = new BulkValidationListener() {
+            @Override
+            public void onPolicyValidated(long index, RolePolicy rolePolicy, boolean isValid, RuntimeException exception) {
+                throw new StackOverflowError();
+            }
+        };
+
+        // When
+        JobHandle failedJob;
+        JobStats stats;
+        try (BulkValidationService service = new BulkValidationService(1, 16)) {
+            failedJob = service.submit(new ValidationJob("tenant", "failing", Collections.nCopies(100, validRolePolicy), false), failingListener);
+            stats = service.submit(new ValidationJob("tenant", "job", Collections.nCopies(100, validRolePolicy), false))
+                    .completion()
+                    .get(10, TimeUnit.SECONDS);
+        }
+
+        // Then
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> failedJob.completion().get(10, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, ex.getCause());
+        assertEquals(100, stats.validCount());
+    }
+
+    @Test
+    public void smallTenantIsNotStarvedTest() throws Exception {
+        // Given
+        CountDownLatch submitted = new CountDownLatch(1);
+        BulkValidationListener blockingListener = new BulkValidationListener() {
+            @Override
+            public void onPolicyValidated(long index, RolePolicy rolePolicy, boolean isValid, RuntimeException exception) {
+                try {
+                    submitted.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        // the single worker runs this before it picks up the next batch, so the large job cannot move on meanwhile
+        AtomicLong largeProcessedCount = new AtomicLong(-1);
+        AtomicReference<JobHandle> largeJob = new AtomicReference<>();
+        BulkValidationListener completionListener = new BulkValidationListener() {
+            @Override
+            public void onCompleted(JobStats stats) {
+                largeProcessedCount.set(largeJob.get().stats().processedCount());
+            }
+        };
+
+        // When
+        JobHandle smallJob;
+        try (BulkValidationService service = new BulkValidationService(1, 16)) {
+            largeJob.set(service.submit(new ValidationJob("large", "job", Collections.nCopies(10_000, validRolePolicy), false), blockingListener));
+            smallJob = service.submit(new ValidationJob("small", "job", Collections.nCopies(64, validRolePolicy), false), completionListener);
+            submitted.countDown();
+            smallJob.completion().get(10, TimeUnit.SECONDS);
+            largeJob.get().completion().get(10, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertEquals(64, smallJob.stats().processedCount());
+        assertTrue(largeProcessedCount.get() > 0);
+        assertTrue(largeProcessedCount.get() <= 5 * 16, largeProcessedCount.get() + " policies of the large job ran before the small one finished");
+    }
+
+    @Test
+    public void finishedTenantsAreForgottenTest() throws Exception {
+        // Given
+        FairScheduler scheduler = new FairScheduler(16);
+        scheduler.setWeight("tenant0", 2);
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            JobHandle job = new JobHandle(new ValidationJob("tenant" + i, "job", List.of(validRolePolicy), false), BulkValidationListener.NONE, scheduler);
+            scheduler.add(job);
+            assertSame(job, scheduler.next());
+            assertFalse(job.runBatch(16));
+            scheduler.remove(job);
+            scheduler.finished(job);
+        }
+
+        // Then
+        assertEquals(0, scheduler.tenantCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.remitly.execution;
+
+import com.remitly.json.ParserLimits;
+import com.remitly.json.RolePolicyReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArraySplitterTest {
+
+    // separators inside strings, escaped quotes and backslashes, every kind of line break, multi-byte characters
+    // and elements that are not policies
+    private final String[] elements = {
+            "{\"PolicyName\": \"a,]}\\\"[{\\\\\", \"PolicyDocument\": {\"Statement\": [\r\n {\"Sid\": \"x\"}]}}",
+            "{\"PolicyName\": \"\u017c\u00f3\u0142w\",\r \"PolicyDocument\": {\"Statement\": [{\"Sid\": \"\u00e9\"}]}}",
+            "null",
+            "\"policy, ]\"",
+            "[1, {\"PolicyName\": \"nested\"}]",
+            "{\"PolicyName\": 5}"
+    };
+
+    private final String[] separators = {",\r\n", ",", " ,\n\t", ",\r"};
+
+    private byte[] documents(int count) {
+        StringBuilder json = new StringBuilder(" \r\n[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(separators[i % separators.length]);
+            }
+            json.append(elements[i % elements.length]);
+        }
+
+        return json.append("\n] trailing").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> readAll(RolePolicyReader reader) throws IOException {
+        List<String> policies = new ArrayList<>();
+        while (reader.next()) {
+            policies.add(reader.index() + " " + reader.policyLocation().getByteOffset()
+                    + " " + reader.policyLocation().getLineNr() + ":" + reader.policyLocation().getColumnNr()
+                    + " " + (reader.failure() != null));
+        }
+
+        return policies;
+    }
+
+    @Test
+    public void chunksReadLikeTheWholeArrayTest() throws IOException {
+        // Given
+        byte[] json = documents(500);
+        List<String> expected;
+        try (RolePolicyReader reader = RolePolicyReader.fromBytes(json, ParserLimits.DEFAULT)) {
+            expected = readAll(reader);
+        }
+
+        // When
+        List<String> policies = new ArrayList<>();
+        int chunkCount = 0;
+        ArraySplitter splitter = new ArraySplitter(new ByteArrayInputStream(json), 256);
+        assertTrue(splitter.isArray());
+        ArraySplitter.Chunk chunk;
+        while ((chunk = splitter.next()) != null) {
+            chunkCount++;
+            try (RolePolicyReader reader = chunk.position() == null
+                    ? RolePolicyReader.fromBytes(chunk.json(), ParserLimits.DEFAULT)
+                    : RolePolicyReader.resumeFromBytes(chunk.json(), ParserLimits.DEFAULT, chunk.position())) {
+                policies.addAll(readAll(reader));
+            }
+        }
+
+        // Then
+        assertEquals(500, expected.size());
+        assertTrue(chunkCount > 10);
+        assertEquals(expected, policies);
+    }
+
+    @Test
+    public void emptyArrayTest() throws IOException {
+        // Given
+        ArraySplitter splitter = new ArraySplitter(new ByteArrayInputStream("[ ]".getBytes(StandardCharsets.UTF_8)), 256);
+
+        // When
+        boolean isArray = splitter.isArray();
+        ArraySplitter.Chunk chunk = splitter.next();
+
+        // Then
+        assertTrue(isArray);
+        assertEquals("[ ]", new String(chunk.json(), StandardCharsets.UTF_8));
+        assertNull(splitter.next());
+    }
+
+    @Test
+    public void singleDocumentIsNotSplitTest() throws IOException {
+        // Given
+        ArraySplitter splitter = new ArraySplitter(new ByteArrayInputStream("\n {\"PolicyName\": \"root\"}".getBytes(StandardCharsets.UTF_8)), 256);
+
+        // When
+        boolean isArray = splitter.isArray();
+
+        // Then
+        assertFalse(isArray);
+    }
+}
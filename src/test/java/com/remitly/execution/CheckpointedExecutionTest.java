@@ -0,0 +1,196 @@
+package com.remitly.execution;
+
+import com.remitly.json.ParserLimits;
+import com.remitly.report.ReportFormat;
+import com.remitly.report.ReportWriter;
+import com.remitly.validator.ValidationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointedExecutionTest {
+
+    private static final int POLICY_COUNT = 5_000;
+    private static final int BROKEN_POLICY = 3_210;
+
+    private final String[] rolePolicyJsons = {
+            """
+            {"PolicyName": "valid", "PolicyDocument": {"Version": "2012-10-17", "Statement": [
+              {"Sid": "A", "Effect": "Allow", "Action": "s3:GetObject", "Resource": "arn:aws:s3:::bucket/*"}]}}""",
+            """
+            {"PolicyName": "wildcard", "PolicyDocument": {"Version": "2012-10-17", "Statement": [
+              {"Sid": "A", "Effect": "Allow", "Action": "s3:GetObject", "Resource": "arn:aws:s3:::bucket/*"},
+              {"Sid": "B", "Effect": "Allow", "Action": "s3:GetObject", "Resource": ["*"]}]}}""",
+            """
+            {"PolicyName": "unbound", "PolicyDocument": {"Version": "2012-10-17", "Statement": [
+              {"Sid": "A", "Effect": "Allow", "Action": 5, "Resource": "arn"}]}}""",
+            "null",
+            // names and sids that every report format has to escape
+            """
+            {"PolicyName": "\u017c\u00f3\u0142w \ud83d\ude00 <&>'\\"\\t\\u0001]]>", "PolicyDocument": {"Version": "2012-10-17", "Statement": [
+              {"Sid": "\u00e9\\n\\"", "Effect": "Allow", "Action": "s3:GetObject", "Resource": "*"}]}}""",
+            "{\"PolicyName\": 5}"
+    };
+
+    private Path directory;
+    private Path documentsPath;
+    private Path checkpointPath;
+    private int brokenOffset;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        // every other policy starts on the line where the previous one ends
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < POLICY_COUNT; i++) {
+            json.append(i == 0 ? "\n" : i % 2 == 0 ? ", " : ",\n");
+            if (i == BROKEN_POLICY) {
+                brokenOffset = json.toString().getBytes(StandardCharsets.UTF_8).length + "{\"PolicyName\"".length();
+            }
+            json.append(rolePolicyJsons[i % 2 == 0 ? 0 : 1 + i / 2 % (rolePolicyJsons.length - 1)]);
+        }
+
+        directory = Files.createTempDirectory("checkpoints");
+        documentsPath = directory.resolve("documents.json");
+        checkpointPath = directory.resolve("documents.checkpoint");
+        Files.writeString(documentsPath, json.append("\n]").toString());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (var paths = Files.list(directory)) {
+            for (Path path : paths.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private ReportWriter collect(List<ValidationResult> results) {
+        return new ReportWriter() {
+            @Override
+            public void write(ValidationResult result) {
+                results.add(result);
+            }
+
+            @Override
+            public void close() {}
+        };
+    }
+
+    private List<ValidationResult> executeWithoutCheckpoints() throws IOException {
+        List<ValidationResult> results = new ArrayList<>();
+        ExecutionPlan plan = new ExecutionPlan(ExecutionStrategy.STREAMING, Files.size(documentsPath), true, POLICY_COUNT);
+        new ExecutionPlanner().execute(plan, documentsPath, true, collect(results));
+
+        return results;
+    }
+
+    private byte[] reportWithoutCheckpoints(ReportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReportWriter writer = format.createWriter(out, documentsPath.toString());
+        ExecutionPlan plan = new ExecutionPlan(ExecutionStrategy.STREAMING, Files.size(documentsPath), true, POLICY_COUNT);
+        new ExecutionPlanner().execute(plan, documentsPath, true, writer);
+        writer.close();
+
+        return out.toByteArray();
+    }
+
+    // swaps a single byte of the broken policy without changing the size or modification time of the input
+    private void overwriteBrokenPolicy(char value) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(documentsPath);
+        byte[] bytes = Files.readAllBytes(documentsPath);
+        bytes[brokenOffset] = (byte) value;
+        Files.write(documentsPath, bytes);
+        Files.setLastModifiedTime(documentsPath, modified);
+    }
+
+    @Test
+    public void uninterruptedExecutionTest() throws IOException {
+        // Given
+        CheckpointedExecution execution = new CheckpointedExecution(checkpointPath, ParserLimits.DEFAULT, 1_000);
+        List<ValidationResult> results = new ArrayList<>();
+
+        // When
+        long count = execution.execute(documentsPath, true, collect(results));
+
+        // Then
+        assertEquals(POLICY_COUNT, count);
+        assertEquals(executeWithoutCheckpoints(), results);
+        assertFalse(Files.exists(checkpointPath));
+    }
+
+    @Test
+    public void resumedExecutionTest() throws IOException {
+        // Given
+        List<ValidationResult> expected = executeWithoutCheckpoints();
+        CheckpointedExecution execution = new CheckpointedExecution(checkpointPath, ParserLimits.DEFAULT, 1_000);
+        List<ValidationResult> results = new ArrayList<>();
+        overwriteBrokenPolicy(']');
+
+        // When
+        Executable interrupted = () -> execution.execute(documentsPath, true, collect(results));
+        assertThrows(IOException.class, interrupted);
+        String checkpoint = Files.readString(checkpointPath, StandardCharsets.UTF_8);
+
+        overwriteBrokenPolicy(':');
+        long count = execution.execute(documentsPath, true, collect(results));
+
+        // Then
+        assertTrue(checkpoint.contains("\"index\":2999"));
+        assertEquals(POLICY_COUNT, count);
+        assertEquals(expected, results);
+        assertFalse(Files.exists(checkpointPath));
+    }
+
+    @Test
+    public void resumedReportTest() throws IOException {
+        for (ReportFormat format : ReportFormat.values()) {
+            // Given
+            byte[] expected = reportWithoutCheckpoints(format);
+            CheckpointedExecution execution = new CheckpointedExecution(checkpointPath, ParserLimits.DEFAULT, 1_000);
+            overwriteBrokenPolicy(']');
+            assertThrows(IOException.class, () -> execution.execute(documentsPath, true, collect(new ArrayList<>())));
+            overwriteBrokenPolicy(':');
+
+            // When
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ReportWriter writer = format.createWriter(out, documentsPath.toString());
+            execution.execute(documentsPath, true, writer);
+            writer.close();
+
+            // Then
+            assertArrayEquals(expected, out.toByteArray(), format.name());
+        }
+    }
+
+    @Test
+    public void foreignCheckpointIgnoredTest() throws IOException {
+        // Given
+        CheckpointedExecution execution = new CheckpointedExecution(checkpointPath, ParserLimits.DEFAULT, 1_000);
+        overwriteBrokenPolicy(']');
+        assertThrows(IOException.class, () -> execution.execute(documentsPath, true, collect(new ArrayList<>())));
+
+        overwriteBrokenPolicy(':');
+        Files.setLastModifiedTime(documentsPath, FileTime.fromMillis(0));
+        List<ValidationResult> results = new ArrayList<>();
+
+        // When
+        long count = execution.execute(documentsPath, true, collect(results));
+
+        // Then
+        assertEquals(POLICY_COUNT, count);
+        assertEquals(executeWithoutCheckpoints(), results);
+    }
+}
@@ -0,0 +1,285 @@
+package com.remitly.execution;
+
+import com.remitly.exception.ValidationRule;
+import com.remitly.json.ParserLimits;
+import com.remitly.report.ReportWriter;
+import com.remitly.validator.ValidationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ExecutionPlannerTest {
+
+    private static final int POLICY_COUNT = 20_000;
+
+    private final String[] rolePolicyJsons = {
+            """
+            {"PolicyName": "valid", "PolicyDocument": {"Version": "2012-10-17", "Statement": [
+              {"Sid": "A", "Effect": "Allow", "Action": "s3:GetObject", "Resource": "arn:aws:s3:::bucket/*"}]}}""",
+            """
+            {"PolicyName": "wildcard", "PolicyDocument": {"Version": "2012-10-17", "Statement": [
+              {"Sid": "A", "Effect": "Allow", "Action": "s3:GetObject", "Resource": "arn:aws:s3:::bucket/*"},
+              {"Sid": "B", "Effect": "Allow", "Action": "s3:GetObject", "Resource": ["*"]}]}}""",
+            """
+            {"PolicyName": "unbound", "PolicyDocument": {"Version": "2012-10-17", "Statement": [
+              {"Sid": "A", "Effect": "Allow", "Action": 5, "Resource": "arn"}]}}""",
+            "null"
+    };
+
+    private Path documentsPath;
+    private Path documentPath;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < POLICY_COUNT; i++) {
+            json.append(i == 0 ? "\n" : ",\n").append(rolePolicyJsons[i % rolePolicyJsons.length]);
+        }
+        documentsPath = Files.createTempFile("documents", ".json");
+        Files.writeString(documentsPath, json.append("\n]").toString());
+
+        documentPath = Files.createTempFile("document", ".json");
+        Files.writeString(documentPath, rolePolicyJsons[1]);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.delete(documentsPath);
+        Files.delete(documentPath);
+    }
+
+    private List<ValidationResult> execute(ExecutionPlanner planner, ExecutionPlan plan, Path path) throws IOException {
+        List<ValidationResult> results = new ArrayList<>();
+        ReportWriter writer = new ReportWriter() {
+            @Override
+            public void write(ValidationResult result) {
+                results.add(result);
+            }
+
+            @Override
+            public void close() {}
+        };
+
+        planner.execute(plan, path, true, writer);
+        return results;
+    }
+
+    @Test
+    public void singleDocumentPlanTest() throws IOException {
+        // When
+        ExecutionPlan plan = new ExecutionPlanner().plan(documentPath);
+
+        // Then
+        assertEquals(ExecutionStrategy.IN_MEMORY_SEQUENTIAL, plan.strategy());
+        assertFalse(plan.isArray());
+        assertEquals(1, plan.estimatedCount());
+    }
+
+    @Test
+    public void largeDocumentPlanTest() throws IOException {
+        // Given
+        ExecutionPlanner planner = new ExecutionPlanner(ParserLimits.DEFAULT, 1_000, 1024);
+
+        // When
+        ExecutionPlan plan = planner.plan(documentsPath);
+
+        // Then
+        assertTrue(plan.isArray());
+        assertTrue(plan.estimatedCount() > POLICY_COUNT / 2 && plan.estimatedCount() < POLICY_COUNT * 2);
+        if (Runtime.getRuntime().availableProcessors() > 1) {
+            assertEquals(ExecutionStrategy.PARALLEL, plan.strategy());
+        } else {
+            assertEquals(ExecutionStrategy.STREAMING, plan.strategy());
+        }
+    }
+
+    @Test
+    public void strategiesAgreeTest() throws IOException {
+        // Given
+        ExecutionPlanner planner = new ExecutionPlanner();
+        long size = Files.size(documentsPath);
+
+        // When
+        List<ValidationResult> inMemory = execute(planner, new ExecutionPlan(ExecutionStrategy.IN_MEMORY_SEQUENTIAL, size, true, POLICY_COUNT), documentsPath);
+        List<ValidationResult> streaming = execute(planner, new ExecutionPlan(ExecutionStrategy.STREAMING, size, true, POLICY_COUNT), documentsPath);
+        List<ValidationResult> parallel = execute(planner, new ExecutionPlan(ExecutionStrategy.PARALLEL, size, true, POLICY_COUNT), documentsPath);
+
+        // Then
+        assertEquals(POLICY_COUNT, inMemory.size());
+        assertEquals(inMemory, streaming);
+        assertEquals(inMemory, parallel);
+    }
+
+    @Test
+    public void violationLocationTest() throws IOException {
+        // Given
+        ExecutionPlanner planner = new ExecutionPlanner();
+        long size = Files.size(documentsPath);
+
+        // When
+        List<ValidationResult> results = execute(planner, new ExecutionPlan(ExecutionStrategy.PARALLEL, size, true, POLICY_COUNT), documentsPath);
+
+        // Then
+        ValidationResult wildcard = results.get(POLICY_COUNT - 3);
+        assertEquals("wildcard", wildcard.policyName());
+        assertEquals(1, wildcard.statementIndex());
+        assertEquals("B", wildcard.sid());
+        assertEquals(3, wildcard.column());
+        assertEquals(Files.readAllLines(documentsPath).get(wildcard.line() - 1).substring(2, 9), "{\"Sid\":");
+    }
+
+    @Test
+    public void policyPastLimitsIsReportedTest() throws IOException {
+        // Given
+        ExecutionPlanner planner = new ExecutionPlanner(ParserLimits.DEFAULT.withMaxStatementCount(1), 1, Long.MAX_VALUE);
+        long size = Files.size(documentsPath);
+
+        // When
+        List<ValidationResult> streaming = execute(planner, new ExecutionPlan(ExecutionStrategy.STREAMING, size, true, POLICY_COUNT), documentsPath);
+        List<ValidationResult> parallel = execute(planner, new ExecutionPlan(ExecutionStrategy.PARALLEL, size, true, POLICY_COUNT), documentsPath);
+
+        // Then
+        assertEquals(POLICY_COUNT, streaming.size());
+        assertEquals(streaming, parallel);
+        assertEquals(ValidationRule.MALFORMED_DOCUMENT, streaming.get(1).rule());
+        assertEquals(6, streaming.get(1).line());
+        assertEquals(3, streaming.get(1).column());
+        assertTrue(streaming.get(4).isValid());
+        assertEquals(ValidationRule.MALFORMED_DOCUMENT, streaming.get(POLICY_COUNT - 3).rule());
+    }
+
+    // separators inside strings, CR LF line breaks, multi-byte characters and elements that are not policies
+    private Path writeTrickyDocuments(String inserted) throws IOException {
+        String[] elements = {
+                """
+                {"PolicyName": "commas", "PolicyDocument": {"Version": "2012-10-17", "Statement": [\r
+                  {"Sid": "a,]}\\"[{\\\\", "Effect": "Allow", "Action": "s3:GetObject", "Resource": ["*"]}]}}""",
+                """
+                {"PolicyName": "\u017c\u00f3\u0142w", "PolicyDocument": {"Version": "2012-10-17", "Statement": [
+                  {"Sid": "\u00e9", "Effect": "Allow", "Action": "s3:GetObject", "Resource": "arn:aws:s3:::b\u00fccket/*"}]}}""",
+                "null",
+                "\"policy\"",
+                "[1, {\"PolicyName\": \"nested,]\"}]",
+                rolePolicyJsons[0]
+        };
+        String[] separators = {",\r\n", ",", " ,\n\t"};
+
+        StringBuilder json = new StringBuilder("[\r\n");
+        for (int i = 0; i < 2_000; i++) {
+            if (i > 0) {
+                json.append(separators[i % separators.length]);
+            }
+            json.append(i == 1_000 && inserted != null ? inserted : elements[i % elements.length]);
+        }
+
+        Path path = Files.createTempFile("tricky", ".json");
+        Files.writeString(path, json.append("\r\n]").toString());
+        return path;
+    }
+
+    private String executeUntilFailure(ExecutionPlanner planner, ExecutionStrategy strategy, Path path, List<ValidationResult> results) throws IOException {
+        ReportWriter writer = new ReportWriter() {
+            @Override
+            public void write(ValidationResult result) {
+                results.add(result);
+            }
+
+            @Override
+            public void close() {}
+        };
+
+        try {
+            planner.execute(new ExecutionPlan(strategy, Files.size(path), true, 0), path, true, writer);
+            return null;
+        } catch (IOException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    @Test
+    public void parallelChunksAgreeTest() throws IOException {
+        // Given
+        ExecutionPlanner planner = new ExecutionPlanner(ParserLimits.DEFAULT, 1, Long.MAX_VALUE, 1024);
+        Path path = writeTrickyDocuments(null);
+
+        // When
+        List<ValidationResult> streaming = new ArrayList<>();
+        List<ValidationResult> parallel = new ArrayList<>();
+        try {
+            assertNull(executeUntilFailure(planner, ExecutionStrategy.STREAMING, path, streaming));
+            assertNull(executeUntilFailure(planner, ExecutionStrategy.PARALLEL, path, parallel));
+        } finally {
+            Files.delete(path);
+        }
+
+        // Then
+        assertEquals(2_000, streaming.size());
+        assertEquals(streaming, parallel);
+        assertEquals(ValidationRule.RESOURCE_WILDCARD, parallel.get(1_200).rule());
+        assertEquals(ValidationRule.POLICY_NAME_FORMAT, parallel.get(1_201).rule());
+        assertEquals(ValidationRule.MALFORMED_DOCUMENT, parallel.get(1_204).rule());
+    }
+
+    @Test
+    public void parallelMalformedInputFailsLikeStreamingTest() throws IOException {
+        // Given
+        ExecutionPlanner planner = new ExecutionPlanner(ParserLimits.DEFAULT, 1, Long.MAX_VALUE, 1024);
+        Path brokenPath = writeTrickyDocuments("{\"PolicyName\": tru}");
+        Path truncatedPath = writeTrickyDocuments(null);
+        byte[] truncated = Files.readAllBytes(truncatedPath);
+        Files.write(truncatedPath, Arrays.copyOf(truncated, truncated.length * 3 / 4));
+
+        for (Path path : List.of(brokenPath, truncatedPath)) {
+            // When
+            List<ValidationResult> streaming = new ArrayList<>();
+            List<ValidationResult> parallel = new ArrayList<>();
+            String streamingFailure;
+            String parallelFailure;
+            try {
+                streamingFailure = executeUntilFailure(planner, ExecutionStrategy.STREAMING, path, streaming);
+                parallelFailure = executeUntilFailure(planner, ExecutionStrategy.PARALLEL, path, parallel);
+            } finally {
+                Files.delete(path);
+            }
+
+            // Then
+            assertNotNull(streamingFailure);
+            assertEquals(streamingFailure, parallelFailure);
+            assertEquals(streaming, parallel);
+        }
+    }
+
+    @Test
+    public void parallelIsFasterThanStreamingTest() throws IOException {
+        // Given
+        assumeTrue(Runtime.getRuntime().availableProcessors() >= 2, "a speed-up needs more than one processor");
+        ExecutionPlanner planner = new ExecutionPlanner(ParserLimits.DEFAULT, 1, Long.MAX_VALUE, 64 * 1024);
+        long size = Files.size(documentsPath);
+
+        // When
+        long streamingNanos = Long.MAX_VALUE;
+        long parallelNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            execute(planner, new ExecutionPlan(ExecutionStrategy.STREAMING, size, true, POLICY_COUNT), documentsPath);
+            streamingNanos = Math.min(streamingNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            execute(planner, new ExecutionPlan(ExecutionStrategy.PARALLEL, size, true, POLICY_COUNT), documentsPath);
+            parallelNanos = Math.min(parallelNanos, System.nanoTime() - start);
+        }
+
+        // Then
+        assertTrue(parallelNanos < streamingNanos * 0.8, "parallel took " + parallelNanos + " ns, streaming " + streamingNanos + " ns");
+    }
+}
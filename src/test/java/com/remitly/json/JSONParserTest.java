@@ -1,15 +1,23 @@
 package com.remitly.json;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.remitly.model.RolePolicy;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class JSONParserTest {
 
@@ -92,4 +100,177 @@ public class JSONParserTest {
         // Then
         assertEquals(rolePolicyList.get(0), parsedRolePolicyJsonList.get(0));
     }
+
+    @Test
+    public void testParseDocumentExceedingPolicyLength() {
+        // Given
+        String json = "{\"PolicyName\": \"" + "a".repeat(ParserLimits.DEFAULT.maxPolicyLength() + 1) + "\"}";
+
+        // When
+        Executable action = () -> JSONParser.parseDocument(json);
+
+        // Then
+        assertThrows(StreamConstraintsException.class, action);
+    }
+
+    @Test
+    public void testParseDocumentExceedingStatementCount() {
+        // Given
+        ParserLimits limits = ParserLimits.DEFAULT.withMaxStatementCount(1);
+        String json = "{\"PolicyDocument\": {\"Statement\": [{\"Resource\": \"one\"}, {\"Resource\": \"two\"}]}}";
+
+        // When
+        Executable action = () -> JSONParser.parseDocument(json, limits);
+
+        // Then
+        assertThrows(StreamConstraintsException.class, action);
+    }
+
+    @Test
+    public void testParseDocumentExceedingNestingDepth() {
+        // Given
+        ParserLimits limits = ParserLimits.DEFAULT.withMaxNestingDepth(4);
+        String json = "{\"PolicyDocument\": {\"Statement\": [{\"Principal\": {\"AWS\": \"arn\"}}]}}";
+
+        // When
+        Executable action = () -> JSONParser.parseDocument(json, limits);
+
+        // Then
+        assertThrows(StreamConstraintsException.class, action);
+    }
+
+    @Test
+    public void testParseDocumentsAppliesPolicyLengthPerDocument() throws IOException {
+        // Given
+        ParserLimits limits = ParserLimits.DEFAULT.withMaxPolicyLength(rolePolicyJson.length());
+
+        // When
+        ArrayList<RolePolicy> parsedRolePolicyJsonList = JSONParser.parseDocuments(
+                "[" + rolePolicyJson + "," + rolePolicyJson + "]", limits
+        );
+
+        // Then
+        assertEquals(2, parsedRolePolicyJsonList.size());
+    }
+
+    @Test
+    public void testRolePolicyReaderFromPath() throws IOException {
+        // Given
+        RolePolicy rolePolicy = objectMapper.readValue(rolePolicyJson, new TypeReference<RolePolicy>() {});
+
+        // When
+        ArrayList<RolePolicy> readRolePolicies = new ArrayList<>();
+        try (RolePolicyReader reader = RolePolicyReader.fromPath(rolePolicyJsonListFilepath)) {
+            while (reader.next()) {
+                readRolePolicies.add(reader.rolePolicy());
+            }
+        }
+
+        // Then
+        assertEquals(1, readRolePolicies.size());
+        assertEquals(rolePolicy, readRolePolicies.get(0));
+    }
+
+    @Test
+    public void testRolePolicyReaderSkipsUnboundPolicy() throws IOException {
+        // Given
+        Path path = Files.createTempFile("documents", ".json");
+        Files.writeString(path, "[{\"PolicyDocument\": {\"Statement\": [{\"Action\": 5}]}}, " + rolePolicyJson + "]");
+
+        // When
+        ArrayList<Boolean> failures = new ArrayList<>();
+        try (RolePolicyReader reader = RolePolicyReader.fromPath(path.toString())) {
+            while (reader.next()) {
+                failures.add(reader.failure() != null);
+            }
+        } finally {
+            Files.delete(path);
+        }
+
+        // Then
+        assertEquals(List.of(true, false), failures);
+    }
+
+    @Test
+    public void testRolePolicyReaderSkipsPolicyPastLimits() throws IOException {
+        // Given
+        String tooManyStatements = "{\"PolicyDocument\": {\"Statement\": [{}, {}, {\"Action\": [\"a\"]}, {}]}}";
+        String action = "\"" + "a".repeat(150) + "\"";
+        String tooLong = "{\"PolicyDocument\": {\"Statement\": [{\"Action\": [" + String.join(", ", action, action, action) + "]}]}}";
+        String json = "[" + tooManyStatements + ", " + rolePolicyJson + ", " + tooLong + ", " + rolePolicyJson + "]";
+        ParserLimits limits = ParserLimits.DEFAULT.withMaxStatementCount(2).withMaxPolicyLength(400);
+
+        // When
+        ArrayList<Boolean> failures = new ArrayList<>();
+        ArrayList<RolePolicy> readRolePolicies = new ArrayList<>();
+        try (RolePolicyReader reader = RolePolicyReader.fromBytes(json.getBytes(), limits)) {
+            while (reader.next()) {
+                failures.add(reader.failure() instanceof StreamConstraintsException);
+                readRolePolicies.add(reader.rolePolicy());
+            }
+        }
+
+        // Then
+        RolePolicy rolePolicy = objectMapper.readValue(rolePolicyJson, new TypeReference<RolePolicy>() {});
+        assertEquals(List.of(true, false, true, false), failures);
+        assertEquals(rolePolicy, readRolePolicies.get(1));
+        assertEquals(rolePolicy, readRolePolicies.get(3));
+    }
+
+    @Test
+    public void testParseDocumentsFromPathRecordsLocations() throws IOException {
+        // Given
+        SourceLocations locations = new SourceLocations();
+
+        // When
+        JSONParser.parseDocumentsFromPath(rolePolicyJsonListFilepath, ParserLimits.DEFAULT, locations);
+
+        // Then
+        assertEquals(1, locations.policyCount());
+        assertEquals(1, locations.statementCount(0));
+        assertEquals(2, locations.policyLine(0));
+        assertEquals(3, locations.policyColumn(0));
+        assertEquals(7, locations.statementLine(0, 0));
+        assertEquals(9, locations.statementColumn(0, 0));
+    }
+
+    @Test
+    public void testRolePolicyReaderLocationsAreByteOffsets() throws IOException {
+        // Given
+        String json = "[{\"PolicyName\": \"\u017c\u00f3\u0142w\"}, {\"PolicyName\": \"b\"}]";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        SourceLocations locations = new SourceLocations();
+
+        // When
+        try (RolePolicyReader reader = RolePolicyReader.fromBytes(bytes, ParserLimits.DEFAULT, locations)) {
+            while (reader.next()) {
+                assertNull(reader.failure());
+            }
+        }
+
+        // Then
+        assertEquals(new String(bytes, StandardCharsets.ISO_8859_1).lastIndexOf('{'), locations.policyOffset(1));
+    }
+
+    @Test
+    public void testRolePolicyReaderLocationsSkipNullStatements() throws IOException {
+        // Given
+        Path path = Files.createTempFile("documents", ".json");
+        Files.writeString(path, "[{\"PolicyDocument\": {\"Statement\": [null,\n {\"Resource\": \"one\"}]}}]");
+
+        // When
+        SourceLocations locations;
+        try (RolePolicyReader reader = RolePolicyReader.fromPath(path.toString())) {
+            reader.next();
+            locations = reader.locations();
+
+            // Then
+            assertEquals(2, locations.statementCount(0));
+            assertEquals(-1, locations.statementLine(0, 0));
+            assertEquals(2, locations.statementLine(0, 1));
+            assertEquals(2, locations.statementColumn(0, 1));
+        } finally {
+            Files.delete(path);
+        }
+    }
 }
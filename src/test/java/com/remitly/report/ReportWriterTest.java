@@ -0,0 +1,76 @@
+package com.remitly.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.remitly.exception.ValidationRule;
+import com.remitly.validator.ValidationResult;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportWriterTest {
+
+    private final List<ValidationResult> results = List.of(
+            ValidationResult.valid(0, "root"),
+            new ValidationResult(1, "wildcard", false, ValidationRule.RESOURCE_WILDCARD, "Resource cannot be a wildcard", 2, "AllowAll", 412, 14, 9),
+            ValidationResult.malformed(2, "Could not deserialize value of field: Action", 880, 30, 5)
+    );
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] writeReport(ReportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReportWriter writer = format.createWriter(out, "documents.json")) {
+            for (ValidationResult result : results) {
+                writer.write(result);
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    @Test
+    public void jsonReportTest() throws IOException {
+        // When
+        JsonNode report = objectMapper.readTree(writeReport(ReportFormat.JSON));
+
+        // Then
+        assertEquals(3, report.get("results").size());
+        assertEquals("RESOURCE_WILDCARD", report.get("results").get(1).get("rule").asText());
+        assertEquals("AllowAll", report.get("results").get(1).get("sid").asText());
+        assertEquals(14, report.get("results").get(1).get("line").asInt());
+        assertEquals(2, report.get("summary").get("invalid").asInt());
+    }
+
+    @Test
+    public void sarifReportTest() throws IOException {
+        // When
+        JsonNode report = objectMapper.readTree(writeReport(ReportFormat.SARIF));
+
+        // Then
+        JsonNode sarifResults = report.get("runs").get(0).get("results");
+        assertEquals("2.1.0", report.get("version").asText());
+        assertEquals(2, sarifResults.size());
+        assertEquals("RESOURCE_WILDCARD", sarifResults.get(0).get("ruleId").asText());
+        assertEquals(9, sarifResults.get(0).get("locations").get(0).get("physicalLocation").get("region").get("startColumn").asInt());
+    }
+
+    @Test
+    public void junitReportTest() throws Exception {
+        // When
+        Document report = DocumentBuilderFactory.newInstance()
+                .newDocumentBuilder()
+                .parse(new ByteArrayInputStream(writeReport(ReportFormat.JUNIT)));
+
+        // Then
+        assertEquals(3, report.getElementsByTagName("testcase").getLength());
+        assertEquals(2, report.getElementsByTagName("failure").getLength());
+    }
+}
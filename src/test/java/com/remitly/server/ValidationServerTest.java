@@ -0,0 +1,253 @@
+package com.remitly.server;
+
+import com.remitly.exception.ValidationRule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationServerTest {
+
+    private final byte[] properJson = """
+            {"PolicyName": "root", "PolicyDocument": {"Version": "2012-10-17", "Statement": [
+              {"Sid": "A", "Effect": "Allow", "Action": "iam:ListRoles", "Resource": "arn:aws:s3:::bucket/*"}]}}"""
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] wildcardJson = """
+            {"PolicyName": "root", "PolicyDocument": {"Version": "2012-10-17", "Statement": [
+              {"Sid": "A", "Effect": "Allow", "Action": "iam:ListRoles", "Resource": "arn:aws:s3:::bucket/*"},
+              {"Sid": "B", "Effect": "Allow", "Action": "iam:ListRoles", "Resource": ["*"]}]}}"""
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] malformedJson = "{\"PolicyName\": ".getBytes(StandardCharsets.UTF_8);
+
+    private ValidationServer server;
+    private ValidationClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new ValidationServer(new InetSocketAddress("127.0.0.1", 0), 2);
+        client = new ValidationClient("127.0.0.1", server.port());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void validPolicyTest() throws IOException {
+        // When
+        ValidationResponse regular = client.validate(properJson, false);
+        ValidationResponse robust = client.validate(properJson, true);
+
+        // Then
+        assertTrue(regular.isValid());
+        assertTrue(robust.isValid());
+        assertNull(robust.rule());
+        assertEquals(-1, robust.statementIndex());
+    }
+
+    @Test
+    public void wildcardPolicyTest() throws IOException {
+        // When
+        ValidationResponse response = client.validate(wildcardJson, true);
+
+        // Then
+        assertFalse(response.isValid());
+        assertEquals(ValidationRule.RESOURCE_WILDCARD, response.rule());
+        assertEquals(1, response.statementIndex());
+    }
+
+    @Test
+    public void malformedPolicyTest() throws IOException {
+        // When
+        ValidationResponse response = client.validate(malformedJson, false);
+
+        // Then
+        assertFalse(response.isValid());
+        assertEquals(ValidationRule.MALFORMED_DOCUMENT, response.rule());
+        assertNotNull(response.message());
+    }
+
+    @Test
+    public void pipelinedRequestsTest() throws IOException {
+        // Given
+        byte[][] documents = {properJson, wildcardJson, malformedJson};
+        List<CompletableFuture<ValidationResponse>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 3_000; i++) {
+            futures.add(client.submit(documents[i % documents.length], i % 2 == 0));
+        }
+        client.flush();
+
+        // Then
+        for (int i = 0; i < futures.size(); i++) {
+            ValidationResponse response = futures.get(i).join();
+            assertEquals(i, response.requestId());
+            assertEquals(i % 3 == 0, response.isValid());
+        }
+        assertEquals(0, client.pendingCount());
+    }
+
+    @Test
+    public void halfClosedClientGetsEveryResponseTest() throws IOException {
+        // Given
+        byte[][] documents = {properJson, wildcardJson, malformedJson};
+        int requestCount = 3_000;
+
+        try (Socket socket = new Socket("127.0.0.1", server.port())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            for (int i = 0; i < requestCount; i++) {
+                ByteBuffer frame = ValidationProtocol.encodeRequest(i, false, documents[i % documents.length]);
+                out.write(frame.array(), 0, frame.limit());
+            }
+            out.flush();
+
+            // When
+            socket.shutdownOutput();
+
+            // Then
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            boolean[] isAnswered = new boolean[requestCount];
+            for (int i = 0; i < requestCount; i++) {
+                byte[] frame = new byte[in.readInt()];
+                in.readFully(frame);
+                ValidationResponse response = ValidationProtocol.decodeResponse(ByteBuffer.wrap(frame));
+                assertEquals(response.requestId() % 3 == 0, response.isValid());
+                isAnswered[response.requestId()] = true;
+            }
+            assertEquals(-1, in.read());
+            for (boolean answered : isAnswered) {
+                assertTrue(answered);
+            }
+        }
+    }
+
+    @Test
+    public void oversizedFrameTest() throws IOException {
+        // Given
+        try (Socket socket = new Socket("127.0.0.1", server.port())) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+
+            // When
+            out.writeInt(ValidationProtocol.MAX_FRAME_LENGTH + 1);
+            out.flush();
+
+            // Then
+            InputStream in = socket.getInputStream();
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void closedServerDisconnectsClientsTest() throws IOException {
+        // Given
+        assertTrue(client.validate(properJson, false).isValid());
+
+        // When
+        server.close();
+
+        // Then
+        Executable action = () -> {
+            CompletableFuture<ValidationResponse> future = client.submit(properJson, false);
+            client.flush();
+            future.get(3, TimeUnit.SECONDS);
+        };
+        Exception ex = assertThrows(Exception.class, action);
+        assertFalse(ex instanceof TimeoutException);
+    }
+
+    @Test
+    public void unreadResponsesStopReadingTest() throws IOException, InterruptedException {
+        // Given
+        ByteBuffer frames = ByteBuffer.allocate(200_000 * 10);
+        for (int i = 0; frames.hasRemaining(); i++) {
+            frames.put(ValidationProtocol.encodeRequest(i, false, "x".getBytes(StandardCharsets.UTF_8)));
+        }
+        frames.flip();
+
+        try (SocketChannel channel = SocketChannel.open()) {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+            channel.connect(new InetSocketAddress("127.0.0.1", server.port()));
+            channel.configureBlocking(false);
+
+            // When
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            int queued = 0;
+            while (System.nanoTime() < deadline && (queued == 0 || queued != server.queuedResponses())) {
+                queued = server.queuedResponses();
+                channel.write(frames);
+                Thread.sleep(200);
+            }
+
+            // Then
+            assertTrue(queued >= ValidationServer.MAX_IN_FLIGHT / 2);
+            assertTrue(queued <= ValidationServer.MAX_IN_FLIGHT, queued + " responses are queued for a client that does not read");
+        }
+    }
+
+    @Test
+    public void ruleCodesRoundTripTest() throws IOException {
+        // Given
+        List<ValidationRule> decoded = new ArrayList<>();
+
+        // When
+        for (ValidationRule rule : ValidationRule.values()) {
+            decoded.add(ValidationProtocol.rule(ValidationProtocol.ruleCode(rule)));
+        }
+
+        // Then
+        assertEquals(Arrays.asList(ValidationRule.values()), decoded);
+    }
+
+    @Test
+    public void unknownRuleCodeFailsPendingTest() throws IOException {
+        // Given
+        try (ServerSocket fakeServer = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+             ValidationClient fakeClient = new ValidationClient("127.0.0.1", fakeServer.getLocalPort());
+             Socket socket = fakeServer.accept()) {
+            CompletableFuture<ValidationResponse> future = fakeClient.submit(properJson, false);
+            fakeClient.flush();
+
+            // When
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(ValidationProtocol.RESPONSE_HEADER_BYTES);
+            out.writeInt(0);
+            out.writeByte(Byte.MAX_VALUE);
+            out.writeInt(-1);
+            out.flush();
+
+            // Then
+            Executable action = () -> future.get(3, TimeUnit.SECONDS);
+            Exception ex = assertThrows(Exception.class, action);
+            assertFalse(ex instanceof TimeoutException);
+            assertEquals(0, fakeClient.pendingCount());
+        }
+    }
+}
@@ -4,10 +4,16 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.remitly.exception.RolePolicyValidationException;
+import com.remitly.exception.ValidationRule;
+import com.remitly.model.PolicyDocument;
 import com.remitly.model.RolePolicy;
+import com.remitly.model.Statement;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class RolePolicyValidatorIntegrationTests {
@@ -174,4 +180,102 @@ public class RolePolicyValidatorIntegrationTests {
         // Then
         assertThrows(RolePolicyValidationException.class, action);
     }
+
+    @Test
+    public void successfulCheckTest() throws JsonProcessingException {
+        // Given
+        RolePolicy rolePolicy = objectMapper.readValue(properRobustJson, new TypeReference<RolePolicy>() {});
+
+        // When
+        ValidationResult result = RolePolicyValidator.check(0, rolePolicy, true);
+
+        // Then
+        assertTrue(result.isValid());
+        assertEquals("root", result.policyName());
+    }
+
+    @Test
+    public void failingRobustCheckTest() throws JsonProcessingException {
+        // Given
+        RolePolicy rolePolicy = objectMapper.readValue(improperRobustJson, new TypeReference<RolePolicy>() {});
+
+        // When
+        ValidationResult result = RolePolicyValidator.check(0, rolePolicy, true);
+
+        // Then
+        assertFalse(result.isValid());
+        assertEquals(ValidationRule.POLICY_NAME_MISSING, result.rule());
+    }
+
+    @Test
+    public void failingNonRobustCheckTest() throws JsonProcessingException {
+        // Given
+        RolePolicy rolePolicy = objectMapper.readValue(improperNonRobustJson, new TypeReference<RolePolicy>() {});
+
+        // When
+        ValidationResult result = RolePolicyValidator.check(0, rolePolicy, false);
+
+        // Then
+        assertFalse(result.isValid());
+        assertEquals(ValidationRule.RESOURCE_WILDCARD, result.rule());
+        assertEquals(0, result.statementIndex());
+    }
+
+    private RolePolicy largeRolePolicy(int statementCount, int wildcardIndex, int principalIndex, int effectIndex) {
+        ArrayList<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < statementCount; i++) {
+            statements.add(new Statement(
+                    "Statement" + i,
+                    i == effectIndex ? "Permit" : "Allow",
+                    i == principalIndex ? "arn:aws:iam::123456789012:root" : null,
+                    new ArrayList<>(List.of("s3:GetObject")),
+                    new ArrayList<>(List.of(i == wildcardIndex ? "*" : "arn:aws:s3:::bucket-" + i))
+            ));
+        }
+
+        return new RolePolicy("large", new PolicyDocument("2012-10-17", statements));
+    }
+
+    @Test
+    public void parallelStatementCheckReportsFirstErrorTest() {
+        // Given
+        RolePolicy rolePolicy = largeRolePolicy(5_000, 4_000, 3_100, 1_700);
+
+        // When
+        ValidationResult sequential = RolePolicyValidator.check(0, rolePolicy, true, Integer.MAX_VALUE);
+        ValidationResult parallel = RolePolicyValidator.check(0, rolePolicy, true, 1);
+
+        // Then
+        assertEquals(ValidationRule.EFFECT_INVALID, parallel.rule());
+        assertEquals(1_700, parallel.statementIndex());
+        assertEquals("Statement1700", parallel.sid());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void parallelStatementCheckReportsFirstWildcardTest() {
+        // Given
+        RolePolicy rolePolicy = largeRolePolicy(5_000, 2_500, 2_501, -1);
+
+        // When
+        ValidationResult sequential = RolePolicyValidator.check(0, rolePolicy, true, Integer.MAX_VALUE);
+        ValidationResult parallel = RolePolicyValidator.check(0, rolePolicy, true, 1);
+
+        // Then
+        assertEquals(ValidationRule.RESOURCE_WILDCARD, parallel.rule());
+        assertEquals(2_500, parallel.statementIndex());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void parallelStatementCheckPassesTest() {
+        // Given
+        RolePolicy rolePolicy = largeRolePolicy(5_000, -1, -1, -1);
+
+        // When
+        ValidationResult result = RolePolicyValidator.check(0, rolePolicy, true, 1);
+
+        // Then
+        assertTrue(result.isValid());
+    }
 }
@@ -0,0 +1,145 @@
+package com.remitly.validator;
+
+import com.remitly.exception.RolePolicyValidationException;
+import com.remitly.json.JSONParser;
+import com.remitly.json.ParserLimits;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WildcardPreScanTest {
+
+    private final String properJson = """
+            {
+              "PolicyName": "root",
+              "PolicyDocument": {
+                "Version": "2012-10-17",
+                "Statement": [
+                  {
+                    "Sid": "IamListAccess",
+                    "Effect": "Allow",
+                    "Action": "iam:*",
+                    "Resource": ["test:resource", "arn:aws:s3:::bucket/*"]
+                  }
+                ]
+              }
+            }""";
+
+    private final String wildcardJson = """
+            {
+              "PolicyDocument": {
+                "Statement": [
+                  {
+                    "Resource": ["one", "*"]
+                  }
+                ]
+              }
+            }""";
+
+    private final String escapedWildcardJson = """
+            {
+              "PolicyDocument": {
+                "Statement": [
+                  {
+                    "Resource": "\\u002a"
+                  }
+                ]
+              }
+            }""";
+
+    private final String missingResourcesJson = """
+            {
+              "PolicyDocument": {
+                "Statement": [
+                  {
+                    "Action": "iam:ListRoles"
+                  }
+                ]
+              }
+            }""";
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void wildcardResourceIsCandidateTest() {
+        assertTrue(WildcardPreScan.mayContainWildcard(bytes(wildcardJson)));
+        assertTrue(WildcardPreScan.mayContainWildcard(bytes(escapedWildcardJson)));
+        assertTrue(WildcardPreScan.mayContainWildcard(bytes("\"*\"")));
+    }
+
+    @Test
+    public void partialWildcardIsNotCandidateTest() {
+        assertFalse(WildcardPreScan.mayContainWildcard(bytes(properJson)));
+        assertFalse(WildcardPreScan.mayContainWildcard(bytes("*")));
+        assertFalse(WildcardPreScan.mayContainWildcard(bytes("")));
+    }
+
+    @Test
+    public void successfulValidationTest() throws IOException {
+        // Given
+        byte[] json = bytes(properJson);
+
+        // When
+        boolean result = WildcardPreScan.validate(json, false);
+
+        // Then
+        assertTrue(result);
+        assertEquals(RolePolicyValidator.validate(JSONParser.parseDocument(properJson), false), result);
+    }
+
+    @Test
+    public void failingValidationTest() throws IOException {
+        assertFalse(WildcardPreScan.validate(bytes(wildcardJson), false));
+        assertFalse(WildcardPreScan.validate(bytes(escapedWildcardJson), false));
+    }
+
+    @Test
+    public void missingResourceValidationTest() {
+        // Given
+        byte[] json = bytes(missingResourcesJson);
+
+        // When
+        Executable action = () -> WildcardPreScan.validate(json, false);
+
+        // Then
+        assertThrows(RolePolicyValidationException.class, action);
+    }
+
+    @Test
+    public void missingPolicyDocumentValidationTest() throws IOException {
+        assertFalse(WildcardPreScan.validate(bytes("{\"PolicyName\": \"root\"}"), false));
+        assertFalse(WildcardPreScan.validate(bytes("null"), false));
+    }
+
+    @Test
+    public void wideEncodingWildcardTest() throws IOException {
+        // Given
+        String json = "{\"PolicyDocument\":{\"Statement\":[{\"Resource\":\"*\"}]}}";
+        Charset[] charsets = {
+                StandardCharsets.UTF_16BE, StandardCharsets.UTF_16LE, StandardCharsets.UTF_16,
+                Charset.forName("UTF-32BE"), Charset.forName("UTF-32LE")
+        };
+
+        for (Charset charset : charsets) {
+            byte[] wildcard = json.getBytes(charset);
+            byte[] proper = properJson.getBytes(charset);
+
+            // When
+            boolean wildcardResult = WildcardPreScan.validate(wildcard, false);
+            boolean properResult = WildcardPreScan.validate(proper, false);
+
+            // Then
+            assertFalse(WildcardPreScan.isTriviallyValid(wildcard, ParserLimits.DEFAULT), charset.name());
+            assertFalse(wildcardResult, charset.name());
+            assertEquals(RolePolicyValidator.validate(JSONParser.parseDocument(wildcard), false), wildcardResult);
+            assertTrue(properResult, charset.name());
+        }
+    }
+}